@@ -0,0 +1,23 @@
+package com.pcrypto.analytics_service.configuration;
+
+import com.pcrypto.analytics_service.streams.PatientEventTopology;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+
+/**
+ * Runs {@link PatientEventTopology} instead of the listeners when {@code analytics.kafka.listener.mode=streams}. The
+ * Streams client itself is configured through {@code spring.kafka.streams.*}.
+ */
+@Configuration
+@EnableKafkaStreams
+@ConditionalOnProperty(name = "analytics.kafka.listener.mode", havingValue = "streams")
+public class StreamsTopologyConfiguration {
+
+    @Autowired
+    public void buildTopology(StreamsBuilder streamsBuilder) {
+        PatientEventTopology.build(streamsBuilder);
+    }
+}
@@ -0,0 +1,54 @@
+package com.pcrypto.analytics_service.controller;
+
+import com.pcrypto.analytics_service.dto.EventWindowsDTO;
+import com.pcrypto.analytics_service.dto.PatientSketchesDTO;
+import com.pcrypto.analytics_service.dto.SketchStateDTO;
+import com.pcrypto.analytics_service.metrics.EventWindowMetrics;
+import com.pcrypto.analytics_service.sketch.PatientSketches;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/analytics")  // http://localhost:4002/analytics
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final EventWindowMetrics eventWindowMetrics;
+    private final PatientSketches patientSketches;
+
+    // Minute / hour / day counts for every event type seen so far
+    @GetMapping("/windows")
+    public ResponseEntity<List<EventWindowsDTO>> getWindows() {
+        return ResponseEntity.ok().body(eventWindowMetrics.getWindows(System.currentTimeMillis()));
+    }
+
+    @GetMapping("/windows/{eventType}")
+    public ResponseEntity<EventWindowsDTO> getWindows(@PathVariable String eventType) {
+        return ResponseEntity.ok().body(eventWindowMetrics.getWindows(eventType, System.currentTimeMillis()));
+    }
+
+    // Distinct patients and top email domains, with their error bounds
+    @GetMapping("/sketches")
+    public ResponseEntity<PatientSketchesDTO> getSketches() {
+        return ResponseEntity.ok().body(patientSketches.getSummary());
+    }
+
+    // Raw sketch contents, to be POSTed to another instance's /sketches/merge
+    @GetMapping("/sketches/state")
+    public ResponseEntity<SketchStateDTO> getSketchState() {
+        return ResponseEntity.ok().body(patientSketches.getState());
+    }
+
+    @PostMapping("/sketches/merge")
+    public ResponseEntity<PatientSketchesDTO> mergeSketches(@RequestBody List<SketchStateDTO> states) {
+        return ResponseEntity.ok().body(patientSketches.merge(states));
+    }
+}
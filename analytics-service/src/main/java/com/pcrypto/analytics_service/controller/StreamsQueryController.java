@@ -0,0 +1,46 @@
+package com.pcrypto.analytics_service.controller;
+
+import com.pcrypto.analytics_service.dto.KeyCountDTO;
+import com.pcrypto.analytics_service.dto.WindowedCountsDTO;
+import com.pcrypto.analytics_service.streams.PatientStreamsQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Only in analytics.kafka.listener.mode=streams; any instance answers, forwarding to the key's owner if needed
+@RestController
+@RequestMapping("/analytics/streams")  // http://localhost:4002/analytics/streams
+@ConditionalOnProperty(name = "analytics.kafka.listener.mode", havingValue = "streams")
+@RequiredArgsConstructor
+public class StreamsQueryController {
+
+    private final PatientStreamsQueryService patientStreamsQueryService;
+
+    @GetMapping("/event-types/{eventType}")
+    public ResponseEntity<KeyCountDTO> getEventTypeCount(
+            @PathVariable String eventType,
+            @RequestHeader(value = PatientStreamsQueryService.FORWARDED_HEADER, defaultValue = "false") boolean forwarded) {
+        return ResponseEntity.ok().body(patientStreamsQueryService.getEventTypeCount(eventType, forwarded));
+    }
+
+    @GetMapping("/event-types/{eventType}/windows")
+    public ResponseEntity<WindowedCountsDTO> getEventTypeWindows(
+            @PathVariable String eventType,
+            @RequestParam(defaultValue = "60") int minutes,
+            @RequestHeader(value = PatientStreamsQueryService.FORWARDED_HEADER, defaultValue = "false") boolean forwarded) {
+        return ResponseEntity.ok().body(patientStreamsQueryService.getEventTypeWindows(eventType, minutes, forwarded));
+    }
+
+    @GetMapping("/email-domains/{domain}")
+    public ResponseEntity<KeyCountDTO> getEmailDomainCount(
+            @PathVariable String domain,
+            @RequestHeader(value = PatientStreamsQueryService.FORWARDED_HEADER, defaultValue = "false") boolean forwarded) {
+        return ResponseEntity.ok().body(patientStreamsQueryService.getEmailDomainCount(domain, forwarded));
+    }
+}
@@ -0,0 +1,15 @@
+package com.pcrypto.analytics_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DistinctCountDTO {
+    private long estimate;
+    // Standard error relative to the true count, e.g. 0.008 = 0.8 %
+    private double relativeStandardError;
+    // ~95 % interval: estimate +/- 2 standard errors
+    private long lowerBound;
+    private long upperBound;
+}
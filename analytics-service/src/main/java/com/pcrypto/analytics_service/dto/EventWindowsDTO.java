@@ -0,0 +1,13 @@
+package com.pcrypto.analytics_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EventWindowsDTO {
+    private String eventType;
+    private WindowCountsDTO minute;
+    private WindowCountsDTO hour;
+    private WindowCountsDTO day;
+}
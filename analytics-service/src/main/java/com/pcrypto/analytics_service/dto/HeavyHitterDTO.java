@@ -0,0 +1,14 @@
+package com.pcrypto.analytics_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class HeavyHitterDTO {
+    private String item;
+    // Never below the true count
+    private long count;
+    // Never above the true count
+    private long lowerBound;
+}
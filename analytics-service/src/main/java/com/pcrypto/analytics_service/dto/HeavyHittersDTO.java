@@ -0,0 +1,18 @@
+package com.pcrypto.analytics_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class HeavyHittersDTO {
+    private long total;
+    // Any item seen more often than this is guaranteed to be tracked (total / Space-Saving capacity)
+    private long guaranteedAbove;
+    // Count-Min: an estimate overcounts by at most maxOvercount with this probability
+    private long maxOvercount;
+    private double confidence;
+    private List<HeavyHitterDTO> items;
+}
@@ -0,0 +1,13 @@
+package com.pcrypto.analytics_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeyCountDTO {
+    private String key;
+    private long count;
+}
@@ -0,0 +1,13 @@
+package com.pcrypto.analytics_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PatientSketchesDTO {
+    // Number of instance sketches combined into this answer
+    private int instances;
+    private DistinctCountDTO distinctPatients;
+    private HeavyHittersDTO topEmailDomains;
+}
@@ -0,0 +1,27 @@
+package com.pcrypto.analytics_service.dto;
+
+import com.pcrypto.analytics_service.sketch.SpaceSaving;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Raw sketch contents of one instance, as served by {@code GET /analytics/sketches/state} and accepted by
+ * {@code POST /analytics/sketches/merge}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SketchStateDTO {
+    private int hllPrecision;
+    // Base64 in JSON
+    private byte[] hllRegisters;
+    private int countMinWidth;
+    private int countMinDepth;
+    private long[] countMinCounts;
+    private int topKCapacity;
+    private List<SpaceSaving.Counter> topKCounters;
+    private long emailDomainTotal;
+}
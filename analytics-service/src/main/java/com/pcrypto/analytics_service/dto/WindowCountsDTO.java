@@ -0,0 +1,15 @@
+package com.pcrypto.analytics_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class WindowCountsDTO {
+    // Tumbling window in progress, e.g. since the start of this clock minute
+    private long current;
+    // Last completed tumbling window
+    private long previous;
+    // Sliding window ending now, e.g. the last 60 seconds
+    private long sliding;
+}
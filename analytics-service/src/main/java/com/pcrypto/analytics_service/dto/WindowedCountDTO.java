@@ -0,0 +1,16 @@
+package com.pcrypto.analytics_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WindowedCountDTO {
+    private Instant windowStart;
+    private Instant windowEnd;
+    private long count;
+}
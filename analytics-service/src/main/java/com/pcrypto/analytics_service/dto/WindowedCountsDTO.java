@@ -0,0 +1,16 @@
+package com.pcrypto.analytics_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WindowedCountsDTO {
+    private String key;
+    // Oldest window first; windows without events are left out
+    private List<WindowedCountDTO> windows;
+}
@@ -0,0 +1,36 @@
+package com.pcrypto.analytics_service.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(SketchMergeException.class)
+    public ResponseEntity<Map<String, String>> handleSketchMergeException(SketchMergeException ex) {
+        log.warn("Sketch merge rejected {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("Message : ", ex.getMessage());
+
+        return ResponseEntity.badRequest().body(errors);
+    }
+
+    @ExceptionHandler(StateStoreUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleStateStoreUnavailableException(StateStoreUnavailableException ex) {
+        log.warn("State store unavailable {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("Message : ", "State store is not queryable yet (rebalancing or restoring), please retry later!");
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errors);
+    }
+}
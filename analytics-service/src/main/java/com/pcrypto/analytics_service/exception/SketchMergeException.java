@@ -0,0 +1,7 @@
+package com.pcrypto.analytics_service.exception;
+
+public class SketchMergeException extends RuntimeException {
+    public SketchMergeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.pcrypto.analytics_service.exception;
+
+public class StateStoreUnavailableException extends RuntimeException {
+    public StateStoreUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,28 +1,88 @@
 package com.pcrypto.analytics_service.kafka;
 
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.pcrypto.analytics_service.metrics.EventWindowMetrics;
+import com.pcrypto.analytics_service.sketch.PatientSketches;
+import com.pcrypto.analytics_service.store.SnapshotStateStore;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.stereotype.Service;
 import patient.events.PatientEvent;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consumes the patient topic in one of two modes ({@code analytics.kafka.listener.mode}): {@code batch} (default)
+ * hands each poll's records to {@link #consumeEvents} in one call, {@code record} calls {@link #consumeEvent} per
+ * record. Either way {@code analytics.kafka.listener.concurrency} consumers share the partitions, and with the
+ * state store enabled each assigned partition resumes where the restored snapshot left off.
+ */
 @Slf4j
 @Service
-public class KafkaConsumer {
+@RequiredArgsConstructor
+public class KafkaConsumer implements ConsumerSeekAware {
+
+    public static final String PATIENT_TOPIC = "patient";
+
+    private final EventWindowMetrics eventWindowMetrics;
+    private final PatientSketches patientSketches;
+    private final SnapshotStateStore stateStore;
 
-    private static final String PATIENT_TOPIC = "patient";
+    @KafkaListener(id = "patient-events", topics = PATIENT_TOPIC, groupId = "analytics-service",
+            concurrency = "${analytics.kafka.listener.concurrency:6}",
+            autoStartup = "#{'${analytics.kafka.listener.mode:batch}' == 'record'}")
+    public void consumeEvent(ConsumerRecord<String, byte[]> record) {
+        stateStore.apply(List.of(record), this::process);
+    }
+
+    @KafkaListener(id = "patient-events-batch", topics = PATIENT_TOPIC, groupId = "analytics-service", batch = "true",
+            concurrency = "${analytics.kafka.listener.concurrency:6}",
+            autoStartup = "#{'${analytics.kafka.listener.mode:batch}' == 'batch'}")
+    public void consumeEvents(List<ConsumerRecord<String, byte[]>> records) {
+        log.debug("=== BATCH RECEIVED === [Records={}]", records.size());
 
-    @KafkaListener(topics = "patient", groupId = "analytics-service")
-    public void consumeEvent(byte[] event) {
-        log.info("=== MESSAGE RECEIVED ===");
+        // A record that fails to parse is logged and skipped, so it never holds back the rest of the batch
+        stateStore.apply(records, this::process);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        if (!stateStore.isEnabled()) {
+            return;
+        }
+        // The committed offset may be ahead of the snapshot - resume from what the local state has actually applied.
+        // A partition the local state has not seen keeps its committed position: its earlier records were counted by
+        // whichever instance owned it, and replaying them here would count them twice across instances
+        assignments.keySet().forEach(partition -> {
+            Long offset = stateStore.nextOffset(partition);
+            if (offset != null) {
+                callback.seek(partition.topic(), partition.partition(), offset);
+            }
+        });
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        stateStore.forget(partitions);
+    }
 
+    private void process(ConsumerRecord<String, byte[]> record) {
         try {
-            PatientEvent patientEvent = PatientEvent.parseFrom(event);
+            PatientEvent patientEvent = PatientEvent.parseFrom(record.value());
 
-            //TODO
-            // add business logic related to analytics here
+            // Windows follow when the event was produced, so a consumer catching up still counts it in the right minute
+            long timestampMs = record.timestamp() > 0 ? record.timestamp() : System.currentTimeMillis();
+            eventWindowMetrics.record(patientEvent.getEventType(), timestampMs);
+            patientSketches.record(patientEvent.getPatientId(), patientEvent.getEmail());
 
-            log.info("Received Patient Event : [PatientId={}, PatientName={}, PatientEmail={}]",
+            // Debug, not info: one log line per event caps throughput during bulk-import bursts
+            log.debug("Received Patient Event : [PatientId={}, PatientName={}, PatientEmail={}]",
                     patientEvent.getPatientId(),
                     patientEvent.getName(),
                     patientEvent.getEmail());
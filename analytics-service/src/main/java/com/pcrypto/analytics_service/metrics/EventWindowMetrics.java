@@ -0,0 +1,143 @@
+package com.pcrypto.analytics_service.metrics;
+
+import com.pcrypto.analytics_service.dto.EventWindowsDTO;
+import com.pcrypto.analytics_service.dto.WindowCountsDTO;
+import com.pcrypto.analytics_service.store.SnapshotBuffers;
+import com.pcrypto.analytics_service.store.Snapshottable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-{@code event_type} event counts over minute, hour and day windows, updated as events are consumed. Each
+ * window is answered three ways: the tumbling window in progress (e.g. this clock minute), the last completed one,
+ * and a sliding window ending now. Windows follow the event's Kafka timestamp and are aligned to UTC.
+ */
+@Service
+public class EventWindowMetrics implements Snapshottable {
+
+    public static final String OTHER_EVENT_TYPE = "OTHER";
+
+    private enum Window {
+        MINUTE(1_000, 60),
+        HOUR(60_000, 60),
+        DAY(3_600_000, 24);
+
+        private final long bucketMillis;
+        private final int buckets;
+
+        Window(long bucketMillis, int buckets) {
+            this.bucketMillis = bucketMillis;
+            this.buckets = buckets;
+        }
+
+        private WindowedCounter newCounter() {
+            // Twice the window, so the previous tumbling window is still in the ring
+            return new WindowedCounter(bucketMillis, buckets * 2);
+        }
+    }
+
+    private record Counters(WindowedCounter minute, WindowedCounter hour, WindowedCounter day) {
+
+        private Counters() {
+            this(Window.MINUTE.newCounter(), Window.HOUR.newCounter(), Window.DAY.newCounter());
+        }
+    }
+
+    private final int maxEventTypes;
+    private final Map<String, Counters> countersByEventType = new ConcurrentHashMap<>();
+
+    public EventWindowMetrics(@Value("${analytics.windows.max-event-types:64}") int maxEventTypes) {
+        this.maxEventTypes = maxEventTypes;
+    }
+
+    public void record(String eventType, long timestampMs) {
+        Counters counters = countersByEventType.get(eventType);
+        if (counters == null) {
+            counters = counters(eventType);
+        }
+        counters.minute().increment(timestampMs);
+        counters.hour().increment(timestampMs);
+        counters.day().increment(timestampMs);
+    }
+
+    public List<EventWindowsDTO> getWindows(long nowMs) {
+        return countersByEventType.entrySet().stream()
+                .map(entry -> toDTO(entry.getKey(), entry.getValue(), nowMs))
+                .sorted(Comparator.comparing(EventWindowsDTO::getEventType))
+                .toList();
+    }
+
+    public EventWindowsDTO getWindows(String eventType, long nowMs) {
+        Counters counters = countersByEventType.get(eventType);
+        return toDTO(eventType, counters != null ? counters : new Counters(), nowMs);
+    }
+
+    @Override
+    public String snapshotLayout() {
+        Counters counters = new Counters();
+        return "event-windows/2:" + counters.minute().getBucketCount() + "," + counters.hour().getBucketCount()
+                + "," + counters.day().getBucketCount();
+    }
+
+    @Override
+    public int snapshotSize() {
+        int size = Integer.BYTES;
+        for (Map.Entry<String, Counters> entry : countersByEventType.entrySet()) {
+            Counters counters = entry.getValue();
+            size += SnapshotBuffers.sizeOf(entry.getKey()) + Long.BYTES * (counters.minute().getBucketCount()
+                    + counters.hour().getBucketCount() + counters.day().getBucketCount());
+        }
+        return size;
+    }
+
+    @Override
+    public void writeSnapshot(ByteBuffer buffer) {
+        buffer.putInt(countersByEventType.size());
+        countersByEventType.forEach((eventType, counters) -> {
+            SnapshotBuffers.putString(buffer, eventType);
+            counters.minute().writeTo(buffer);
+            counters.hour().writeTo(buffer);
+            counters.day().writeTo(buffer);
+        });
+    }
+
+    @Override
+    public void restoreSnapshot(ByteBuffer buffer) {
+        int eventTypes = buffer.getInt();
+        for (int i = 0; i < eventTypes; i++) {
+            Counters counters = new Counters();
+            countersByEventType.put(SnapshotBuffers.getString(buffer), counters);
+            counters.minute().readFrom(buffer);
+            counters.hour().readFrom(buffer);
+            counters.day().readFrom(buffer);
+        }
+    }
+
+    private Counters counters(String eventType) {
+        // event_type comes from the producer - cap the distinct values so a bad producer cannot grow the heap
+        String key = countersByEventType.size() < maxEventTypes ? eventType : OTHER_EVENT_TYPE;
+        return countersByEventType.computeIfAbsent(key, type -> new Counters());
+    }
+
+    private static EventWindowsDTO toDTO(String eventType, Counters counters, long nowMs) {
+        return new EventWindowsDTO(eventType,
+                counts(counters.minute(), Window.MINUTE, nowMs),
+                counts(counters.hour(), Window.HOUR, nowMs),
+                counts(counters.day(), Window.DAY, nowMs));
+    }
+
+    private static WindowCountsDTO counts(WindowedCounter counter, Window window, long nowMs) {
+        long now = counter.bucketOf(nowMs);
+        long currentStart = Math.floorDiv(now, window.buckets) * window.buckets;
+        return new WindowCountsDTO(
+                counter.sum(currentStart, now),
+                counter.sum(currentStart - window.buckets, currentStart - 1),
+                counter.sum(now - window.buckets + 1, now));
+    }
+}
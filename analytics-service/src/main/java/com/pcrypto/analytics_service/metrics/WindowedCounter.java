@@ -0,0 +1,93 @@
+package com.pcrypto.analytics_service.metrics;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Event counts in fixed-width time buckets, kept in a ring of {@code bucketCount} slots. Each slot is one
+ * {@code long}: a 24-bit lap tag and a 40-bit count. The slot index already fixes the bucket within a lap of the
+ * ring, so the tag only stores which lap ({@code bucket / bucketCount}) - enough to tell a live slot from a recycled
+ * one for 2^23 laps (over 30 years for a 1-second, 120-slot ring) however long a slot goes untouched.
+ * Counting is a single compare-and-set with no allocation; reading sums at most {@code bucketCount} slots.
+ */
+public class WindowedCounter {
+
+    private static final int COUNT_BITS = 40;
+    private static final long TAG_MASK = (1L << (Long.SIZE - COUNT_BITS)) - 1;
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final AtomicLongArray slots;
+
+    public WindowedCounter(long bucketMillis, int bucketCount) {
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = bucketCount;
+        this.slots = new AtomicLongArray(bucketCount);
+    }
+
+    public long bucketOf(long timestampMs) {
+        return Math.floorDiv(timestampMs, bucketMillis);
+    }
+
+    public void increment(long timestampMs) {
+        long bucket = bucketOf(timestampMs);
+        int slot = (int) Math.floorMod(bucket, bucketCount);
+        long tag = tagOf(bucket);
+
+        while (true) {
+            long current = slots.get(slot);
+            long updated;
+            if (current != 0 && current >>> COUNT_BITS == tag) {
+                updated = current + 1;
+            } else if (current == 0 || isAfter(tag, current >>> COUNT_BITS)) {
+                updated = tag << COUNT_BITS | 1;
+            } else {
+                // The slot already moved on to a later bucket - this event is older than the ring
+                return;
+            }
+            if (slots.compareAndSet(slot, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Total of buckets {@code firstBucket..lastBucket} (inclusive); buckets that fell out of the ring count as 0.
+     */
+    public long sum(long firstBucket, long lastBucket) {
+        long total = 0;
+        for (long bucket = Math.max(firstBucket, lastBucket - bucketCount + 1); bucket <= lastBucket; bucket++) {
+            long value = slots.get((int) Math.floorMod(bucket, bucketCount));
+            if (value != 0 && value >>> COUNT_BITS == tagOf(bucket)) {
+                total += value & ((1L << COUNT_BITS) - 1);
+            }
+        }
+        return total;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        for (int slot = 0; slot < bucketCount; slot++) {
+            buffer.putLong(slots.get(slot));
+        }
+    }
+
+    public void readFrom(ByteBuffer buffer) {
+        for (int slot = 0; slot < bucketCount; slot++) {
+            slots.set(slot, buffer.getLong());
+        }
+    }
+
+    private long tagOf(long bucket) {
+        return Math.floorDiv(bucket, bucketCount) & TAG_MASK;
+    }
+
+    private static boolean isAfter(long tag, long otherTag) {
+        // Difference of two 24-bit tags, sign-extended, so ordering survives the wrap-around
+        long difference = (tag - otherTag) << COUNT_BITS >> COUNT_BITS;
+        return difference > 0;
+    }
+}
@@ -0,0 +1,131 @@
+package com.pcrypto.analytics_service.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min frequency estimate over a {@code depth x width} table of counters. An estimate never undercounts, and
+ * overcounts by at most {@code epsilon * total} with probability {@code 1 - delta}, where
+ * {@code epsilon = e / width} and {@code delta = e^-depth}. Tables of the same shape merge by cell-wise addition.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray counts;
+    private final AtomicLong total = new AtomicLong();
+
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Count-Min width and depth must be positive: " + width + "x" + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counts = new AtomicLongArray(width * depth);
+    }
+
+    public static CountMinSketch withErrorBounds(double epsilon, double delta) {
+        return new CountMinSketch((int) Math.ceil(Math.E / epsilon), (int) Math.ceil(Math.log(1 / delta)));
+    }
+
+    public static CountMinSketch fromCounts(int width, int depth, long[] counts, long total) {
+        CountMinSketch sketch = new CountMinSketch(width, depth);
+        if (counts.length != sketch.counts.length()) {
+            throw new IllegalArgumentException("Expected " + sketch.counts.length() + " Count-Min cells for "
+                    + width + "x" + depth + ", got " + counts.length);
+        }
+        for (int i = 0; i < counts.length; i++) {
+            sketch.counts.set(i, counts[i]);
+        }
+        sketch.total.set(total);
+        return sketch;
+    }
+
+    public void add(String item) {
+        long hash = Hash64.hash(item);
+        for (int row = 0; row < depth; row++) {
+            counts.incrementAndGet(cell(hash, row));
+        }
+        total.incrementAndGet();
+    }
+
+    public long estimate(String item) {
+        long hash = Hash64.hash(item);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts.get(cell(hash, row)));
+        }
+        return estimate;
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge Count-Min of " + other.width + "x" + other.depth
+                    + " into " + width + "x" + depth);
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            counts.addAndGet(i, other.counts.get(i));
+        }
+        total.addAndGet(other.total.get());
+    }
+
+    public double epsilon() {
+        return Math.E / width;
+    }
+
+    public double delta() {
+        return Math.exp(-depth);
+    }
+
+    /**
+     * Most an estimate can overcount right now (with probability {@code 1 - delta}), {@code epsilon * total}.
+     */
+    public long errorBound() {
+        return (long) Math.ceil(epsilon() * total.get());
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int serializedSize() {
+        return Long.BYTES + counts.length() * Long.BYTES;
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putLong(total.get());
+        for (int i = 0; i < counts.length(); i++) {
+            buffer.putLong(counts.get(i));
+        }
+    }
+
+    public void readFrom(ByteBuffer buffer) {
+        total.set(buffer.getLong());
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, buffer.getLong());
+        }
+    }
+
+    public long[] toCounts() {
+        long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    private int cell(long hash, int row) {
+        // Row hashes h1 + row * h2 from the two halves of one 64-bit hash (Kirsch-Mitzenmacher)
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return row * width + Math.floorMod(combined, width);
+    }
+}
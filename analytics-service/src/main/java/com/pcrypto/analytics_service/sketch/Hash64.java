@@ -0,0 +1,26 @@
+package com.pcrypto.analytics_service.sketch;
+
+/**
+ * 64-bit string hash shared by the sketches: FNV-1a over the chars, then the MurmurHash3 finalizer so every output
+ * bit depends on every input bit. It has no seed on purpose - sketches built on different instances must hash the
+ * same value to the same register / cell to be mergeable.
+ */
+final class Hash64 {
+
+    private Hash64() {
+    }
+
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,125 @@
+package com.pcrypto.analytics_service.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * HyperLogLog distinct-count estimate over {@code 2^precision} registers, a fixed size no matter how many values
+ * are added (16 384 registers / ~0.81 % standard error at the default precision 14). Two sketches of the same precision
+ * merge by taking the register-wise maximum, which gives exactly the sketch of the union of both inputs.
+ */
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final AtomicIntegerArray registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between "
+                    + MIN_PRECISION + " and " + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        this.registers = new AtomicIntegerArray(1 << precision);
+    }
+
+    public static HyperLogLog fromRegisters(int precision, byte[] registers) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        if (registers.length != sketch.registers.length()) {
+            throw new IllegalArgumentException("Expected " + sketch.registers.length() + " registers for precision "
+                    + precision + ", got " + registers.length);
+        }
+        // A rank can never exceed 64 - precision + 1; anything else would overflow 1L << register in estimate()
+        int maxRank = Long.SIZE - precision + 1;
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] < 0 || registers[i] > maxRank) {
+                throw new IllegalArgumentException("HyperLogLog register " + i + " must be between 0 and " + maxRank
+                        + ": " + registers[i]);
+            }
+            sketch.registers.set(i, registers[i]);
+        }
+        return sketch;
+    }
+
+    public void add(String value) {
+        long hash = Hash64.hash(value);
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        // Leading zeros of the remaining bits; the sentinel bit caps the rank at 64 - precision + 1
+        int rank = Long.numberOfLeadingZeros(hash << precision | 1L << (precision - 1)) + 1;
+
+        int current;
+        while (rank > (current = registers.get(index))) {
+            if (registers.compareAndSet(index, current, rank)) {
+                return;
+            }
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog of precision " + other.precision
+                    + " into precision " + precision);
+        }
+        for (int i = 0; i < registers.length(); i++) {
+            registers.accumulateAndGet(i, other.registers.get(i), Math::max);
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length();
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < m; i++) {
+            int register = registers.get(i);
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+
+        // Small cardinalities: linear counting on the empty registers is far more accurate than the raw estimate
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Standard error of {@link #estimate()} relative to the true count, {@code 1.04 / sqrt(2^precision)}.
+     */
+    public double relativeStandardError() {
+        return 1.04 / Math.sqrt(registers.length());
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int serializedSize() {
+        return registers.length();
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        for (int i = 0; i < registers.length(); i++) {
+            buffer.put((byte) registers.get(i));
+        }
+    }
+
+    public void readFrom(ByteBuffer buffer) {
+        for (int i = 0; i < registers.length(); i++) {
+            registers.set(i, buffer.get());
+        }
+    }
+
+    public byte[] toRegisters() {
+        byte[] snapshot = new byte[registers.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = (byte) registers.get(i);
+        }
+        return snapshot;
+    }
+}
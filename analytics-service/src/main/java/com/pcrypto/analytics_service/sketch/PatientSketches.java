@@ -0,0 +1,148 @@
+package com.pcrypto.analytics_service.sketch;
+
+import com.pcrypto.analytics_service.dto.DistinctCountDTO;
+import com.pcrypto.analytics_service.dto.HeavyHitterDTO;
+import com.pcrypto.analytics_service.dto.HeavyHittersDTO;
+import com.pcrypto.analytics_service.dto.PatientSketchesDTO;
+import com.pcrypto.analytics_service.dto.SketchStateDTO;
+import com.pcrypto.analytics_service.exception.SketchMergeException;
+import com.pcrypto.analytics_service.store.Snapshottable;
+import com.pcrypto.analytics_service.util.EmailDomains;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Fixed-size sketches over the patient event stream: distinct {@code patientId}s (HyperLogLog) and the most
+ * frequent email domains (Space-Saving picks the candidates, Count-Min tightens their upper bound). Memory does not
+ * grow with the stream - about 64 KB of registers plus a {@code width x depth} counter table - and every sketch can
+ * be merged with other instances' through {@link #merge}.
+ */
+@Service
+public class PatientSketches implements Snapshottable {
+
+    private final int topK;
+    private final HyperLogLog patientIds;
+    private final CountMinSketch emailDomainCounts;
+    private final SpaceSaving emailDomains;
+
+    @Autowired
+    public PatientSketches(@Value("${analytics.sketches.hll-precision:14}") int hllPrecision,
+                           @Value("${analytics.sketches.count-min.epsilon:0.001}") double countMinEpsilon,
+                           @Value("${analytics.sketches.count-min.delta:0.01}") double countMinDelta,
+                           @Value("${analytics.sketches.top-k.capacity:100}") int topKCapacity,
+                           @Value("${analytics.sketches.top-k.size:10}") int topK) {
+        this(new HyperLogLog(hllPrecision), CountMinSketch.withErrorBounds(countMinEpsilon, countMinDelta),
+                new SpaceSaving(topKCapacity), topK);
+    }
+
+    private PatientSketches(HyperLogLog patientIds, CountMinSketch emailDomainCounts, SpaceSaving emailDomains,
+                            int topK) {
+        this.patientIds = patientIds;
+        this.emailDomainCounts = emailDomainCounts;
+        this.emailDomains = emailDomains;
+        this.topK = topK;
+    }
+
+    public void record(String patientId, String email) {
+        if (!patientId.isEmpty()) {
+            patientIds.add(patientId);
+        }
+        EmailDomains.domainOf(email).ifPresent(domain -> {
+            emailDomainCounts.add(domain);
+            emailDomains.offer(domain);
+        });
+    }
+
+    public PatientSketchesDTO getSummary() {
+        return toDTO(1);
+    }
+
+    public SketchStateDTO getState() {
+        return new SketchStateDTO(
+                patientIds.getPrecision(), patientIds.toRegisters(),
+                emailDomainCounts.getWidth(), emailDomainCounts.getDepth(), emailDomainCounts.toCounts(),
+                emailDomains.getCapacity(), emailDomains.toCounters(),
+                emailDomainCounts.getTotal());
+    }
+
+    /**
+     * Summary of this instance's sketches merged with {@code others} (e.g. the state of every other instance in the
+     * consumer group); this instance's own sketches are left untouched.
+     */
+    public PatientSketchesDTO merge(List<SketchStateDTO> others) {
+        PatientSketches merged = fromState(getState());
+        try {
+            for (SketchStateDTO other : others) {
+                PatientSketches sketches = fromState(other);
+                merged.patientIds.merge(sketches.patientIds);
+                merged.emailDomainCounts.merge(sketches.emailDomainCounts);
+                merged.emailDomains.merge(sketches.emailDomains);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new SketchMergeException(e.getMessage());
+        }
+        return merged.toDTO(others.size() + 1);
+    }
+
+    @Override
+    public String snapshotLayout() {
+        return "patient-sketches/1:hll" + patientIds.getPrecision()
+                + ",cms" + emailDomainCounts.getWidth() + "x" + emailDomainCounts.getDepth()
+                + ",ss" + emailDomains.getCapacity();
+    }
+
+    @Override
+    public int snapshotSize() {
+        return patientIds.serializedSize() + emailDomainCounts.serializedSize() + emailDomains.serializedSize();
+    }
+
+    @Override
+    public void writeSnapshot(ByteBuffer buffer) {
+        patientIds.writeTo(buffer);
+        emailDomainCounts.writeTo(buffer);
+        emailDomains.writeTo(buffer);
+    }
+
+    @Override
+    public void restoreSnapshot(ByteBuffer buffer) {
+        patientIds.readFrom(buffer);
+        emailDomainCounts.readFrom(buffer);
+        emailDomains.readFrom(buffer);
+    }
+
+    private PatientSketches fromState(SketchStateDTO state) {
+        try {
+            return new PatientSketches(
+                    HyperLogLog.fromRegisters(state.getHllPrecision(), state.getHllRegisters()),
+                    CountMinSketch.fromCounts(state.getCountMinWidth(), state.getCountMinDepth(),
+                            state.getCountMinCounts(), state.getEmailDomainTotal()),
+                    SpaceSaving.fromCounters(state.getTopKCapacity(), state.getTopKCounters(),
+                            state.getEmailDomainTotal()),
+                    topK);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new SketchMergeException("Invalid sketch state: " + e.getMessage());
+        }
+    }
+
+    private PatientSketchesDTO toDTO(int instances) {
+        long estimate = patientIds.estimate();
+        double error = patientIds.relativeStandardError();
+        DistinctCountDTO distinctPatients = new DistinctCountDTO(estimate, error,
+                Math.max(0, Math.round(estimate * (1 - 2 * error))), Math.round(estimate * (1 + 2 * error)));
+
+        List<HeavyHitterDTO> items = emailDomains.top(topK).stream()
+                .map(counter -> new HeavyHitterDTO(counter.item(),
+                        Math.min(counter.count(), emailDomainCounts.estimate(counter.item())),
+                        counter.count() - counter.error()))
+                .toList();
+        long total = emailDomainCounts.getTotal();
+        HeavyHittersDTO topEmailDomains = new HeavyHittersDTO(total, total / emailDomains.getCapacity(),
+                emailDomainCounts.errorBound(), 1 - emailDomainCounts.delta(), items);
+
+        return new PatientSketchesDTO(instances, distinctPatients, topEmailDomains);
+    }
+}
@@ -0,0 +1,177 @@
+package com.pcrypto.analytics_service.sketch;
+
+import com.pcrypto.analytics_service.store.SnapshotBuffers;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Space-Saving heavy hitters: monitors at most {@code capacity} items. An unmonitored item takes over the counter
+ * with the smallest count, inheriting that count as its possible error, so for every monitored item
+ * {@code count - error <= true count <= count}, and any item with more than {@code total / capacity} occurrences is
+ * guaranteed to be monitored. Merging follows Agarwal et al., "Mergeable Summaries" (2012).
+ */
+public class SpaceSaving {
+
+    public record Counter(String item, long count, long error) {
+    }
+
+    private static final class MutableCounter {
+        private long count;
+        private long error;
+
+        private MutableCounter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, MutableCounter> counters;
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Space-Saving capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public static SpaceSaving fromCounters(int capacity, List<Counter> counters, long total) {
+        SpaceSaving sketch = new SpaceSaving(capacity);
+        if (counters.size() > capacity) {
+            throw new IllegalArgumentException("Expected at most " + capacity + " Space-Saving counters, got "
+                    + counters.size());
+        }
+        counters.forEach(counter -> sketch.counters.put(counter.item(),
+                new MutableCounter(counter.count(), counter.error())));
+        sketch.total = total;
+        return sketch;
+    }
+
+    public synchronized void offer(String item) {
+        total++;
+        MutableCounter counter = counters.get(item);
+        if (counter != null) {
+            counter.count++;
+        } else if (counters.size() < capacity) {
+            counters.put(item, new MutableCounter(1, 0));
+        } else {
+            // Linear scan for the minimum: only paid by items outside the monitored set, and capacity is small
+            String minItem = null;
+            MutableCounter min = null;
+            for (Map.Entry<String, MutableCounter> entry : counters.entrySet()) {
+                if (min == null || entry.getValue().count < min.count) {
+                    minItem = entry.getKey();
+                    min = entry.getValue();
+                }
+            }
+            counters.remove(minItem);
+            min.error = min.count;
+            min.count++;
+            counters.put(item, min);
+        }
+    }
+
+    public void merge(SpaceSaving other) {
+        if (other.capacity != capacity) {
+            throw new IllegalArgumentException("Cannot merge Space-Saving of capacity " + other.capacity
+                    + " into capacity " + capacity);
+        }
+        // Snapshot first, so this method never holds both summaries' locks at once
+        Map<String, Counter> theirs = new HashMap<>();
+        other.toCounters().forEach(counter -> theirs.put(counter.item(), counter));
+        // An item a summary does not monitor occurred there at most its minimum count times
+        long otherMin = other.minCount();
+        long otherTotal = other.getTotal();
+
+        synchronized (this) {
+            long thisMin = minCount();
+            Set<String> items = new HashSet<>(counters.keySet());
+            items.addAll(theirs.keySet());
+
+            List<Counter> merged = new ArrayList<>(items.size());
+            for (String item : items) {
+                MutableCounter mine = counters.get(item);
+                Counter their = theirs.get(item);
+                merged.add(new Counter(item,
+                        (mine != null ? mine.count : thisMin) + (their != null ? their.count() : otherMin),
+                        (mine != null ? mine.error : thisMin) + (their != null ? their.error() : otherMin)));
+            }
+            merged.sort(Comparator.comparingLong(Counter::count).reversed());
+
+            counters.clear();
+            merged.stream().limit(capacity).forEach(counter -> counters.put(counter.item(),
+                    new MutableCounter(counter.count(), counter.error())));
+            total += otherTotal;
+        }
+    }
+
+    /**
+     * The {@code k} largest counters, largest first.
+     */
+    public synchronized List<Counter> top(int k) {
+        return counters.entrySet().stream()
+                .map(entry -> new Counter(entry.getKey(), entry.getValue().count, entry.getValue().error))
+                .sorted(Comparator.comparingLong(Counter::count).reversed().thenComparing(Counter::item))
+                .limit(k)
+                .toList();
+    }
+
+    public synchronized List<Counter> toCounters() {
+        return top(capacity);
+    }
+
+    /**
+     * Most occurrences an unmonitored item can have had: the smallest counter once all are in use, else 0.
+     */
+    public synchronized long minCount() {
+        if (counters.size() < capacity) {
+            return 0;
+        }
+        return counters.values().stream().mapToLong(counter -> counter.count).min().orElse(0);
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public synchronized int serializedSize() {
+        int size = Long.BYTES + Integer.BYTES;
+        for (String item : counters.keySet()) {
+            size += SnapshotBuffers.sizeOf(item) + 2 * Long.BYTES;
+        }
+        return size;
+    }
+
+    public synchronized void writeTo(ByteBuffer buffer) {
+        buffer.putLong(total);
+        buffer.putInt(counters.size());
+        counters.forEach((item, counter) -> {
+            SnapshotBuffers.putString(buffer, item);
+            buffer.putLong(counter.count);
+            buffer.putLong(counter.error);
+        });
+    }
+
+    public synchronized void readFrom(ByteBuffer buffer) {
+        counters.clear();
+        total = buffer.getLong();
+        int size = buffer.getInt();
+        for (int i = 0; i < size; i++) {
+            String item = SnapshotBuffers.getString(buffer);
+            counters.put(item, new MutableCounter(buffer.getLong(), buffer.getLong()));
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,270 @@
+package com.pcrypto.analytics_service.store;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Local persistent store for the {@link Snapshottable} aggregates. Every {@code analytics.state-store.snapshot-interval-ms}
+ * their state is written to one memory-mapped snapshot file together with the next offset to consume for every
+ * partition applied so far. Events are applied under a shared lock and the snapshot is taken under the exclusive
+ * one, so the state in a snapshot covers exactly the records before its offsets. On startup the snapshot is restored
+ * and the consumer resumes from its offsets ({@link #nextOffset}), so a restart only replays what came after the last
+ * snapshot instead of the whole topic.
+ */
+@Slf4j
+@Service
+public class SnapshotStateStore {
+
+    public static final String SNAPSHOT_FILE = "snapshot.bin";
+
+    private static final int MAGIC = 0x414e5353;
+    private static final int VERSION = 1;
+
+    private final List<Snapshottable> participants;
+    private final boolean enabled;
+    private final Path directory;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<TopicPartition, Long> nextOffsets = new ConcurrentHashMap<>();
+    private final AtomicLong appliedBatches = new AtomicLong();
+    private long snapshotBatches;
+
+    public SnapshotStateStore(List<Snapshottable> participants,
+                              @Value("${analytics.state-store.enabled:true}") boolean enabled,
+                              @Value("${analytics.state-store.dir:state}") String directory) {
+        this.participants = participants;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Next offset to consume on {@code partition} for the local state to stay exact, or {@code null} if the state has
+     * never seen that partition.
+     */
+    public Long nextOffset(TopicPartition partition) {
+        return nextOffsets.get(partition);
+    }
+
+    /**
+     * Drops the offsets of partitions this instance no longer consumes. The next snapshot then leaves them out, and a
+     * partition that comes back later resumes from the committed offset its other owner left behind instead of
+     * re-reading (and double-counting) what that owner already consumed.
+     */
+    public void forget(Collection<TopicPartition> partitions) {
+        if (!enabled || partitions.isEmpty()) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            partitions.forEach(nextOffsets::remove);
+            // Counts as a change, so the next snapshot is written even if nothing else is consumed before it
+            appliedBatches.incrementAndGet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs {@code processor} on each record and records the partitions' next offsets, atomically with respect to
+     * {@link #snapshot()}.
+     */
+    public void apply(List<ConsumerRecord<String, byte[]>> records, Consumer<ConsumerRecord<String, byte[]>> processor) {
+        if (!enabled) {
+            records.forEach(processor);
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            ConsumerRecord<String, byte[]> previous = null;
+            for (ConsumerRecord<String, byte[]> record : records) {
+                processor.accept(record);
+                // A poll returns each partition's records together - one offset update per partition, not per record
+                if (previous != null && (previous.partition() != record.partition()
+                        || !previous.topic().equals(record.topic()))) {
+                    trackOffset(previous);
+                }
+                previous = record;
+            }
+            if (previous != null) {
+                trackOffset(previous);
+                appliedBatches.incrementAndGet();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${analytics.state-store.snapshot-interval-ms:10000}",
+            fixedDelayString = "${analytics.state-store.snapshot-interval-ms:10000}")
+    public synchronized void snapshot() {
+        if (!enabled || appliedBatches.get() == snapshotBatches) {
+            return;
+        }
+        long started = System.nanoTime();
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        Path tempFile = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            long batches;
+            int size;
+            Map<TopicPartition, Long> offsets;
+            try (FileChannel channel = FileChannel.open(tempFile, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+                MappedByteBuffer buffer;
+                // Consumers wait only while the state is copied into the mapping; the flush to disk happens after
+                lock.writeLock().lock();
+                try {
+                    batches = appliedBatches.get();
+                    offsets = new HashMap<>(nextOffsets);
+                    size = snapshotSize(offsets);
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                    writeSnapshot(buffer, offsets);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                CRC32 crc = new CRC32();
+                crc.update(buffer.slice(0, size - Long.BYTES));
+                buffer.putLong(crc.getValue());
+                buffer.force();
+            }
+            // Readers only ever see a complete snapshot: the new file replaces the old one in a single rename
+            Files.move(tempFile, snapshotFile, ATOMIC_MOVE, REPLACE_EXISTING);
+            snapshotBatches = batches;
+            log.info("Wrote state snapshot [Bytes={}, Offsets={}, TookMs={}]",
+                    size, describe(offsets), (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            log.error("Failed to write state snapshot {}", e.getMessage(), e);
+        }
+    }
+
+    @PostConstruct
+    public void restore() {
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        if (!enabled || !Files.exists(snapshotFile)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(snapshotFile, READ)) {
+            int size = (int) channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, size - Long.BYTES));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong(size - Long.BYTES) != crc.getValue()) {
+                log.warn("Ignoring corrupt state snapshot {}", snapshotFile);
+                return;
+            }
+            long createdAtMs = buffer.getLong();
+            String layout = SnapshotBuffers.getString(buffer);
+            if (!layout.equals(layout())) {
+                log.warn("Ignoring state snapshot written with another layout [Snapshot={}, Current={}]",
+                        layout, layout());
+                return;
+            }
+
+            Map<TopicPartition, Long> offsets = new HashMap<>();
+            int partitions = buffer.getInt();
+            for (int i = 0; i < partitions; i++) {
+                String topic = SnapshotBuffers.getString(buffer);
+                offsets.put(new TopicPartition(topic, buffer.getInt()), buffer.getLong());
+            }
+            for (Snapshottable participant : participants) {
+                int length = buffer.getInt();
+                participant.restoreSnapshot(buffer.slice(buffer.position(), length));
+                buffer.position(buffer.position() + length);
+            }
+            nextOffsets.putAll(offsets);
+
+            log.info("Restored state snapshot [Bytes={}, AgeMs={}, Offsets={}, TookMs={}]",
+                    size, System.currentTimeMillis() - createdAtMs, describe(offsets),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable state snapshot {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        // Listener containers stop before beans are destroyed, so this captures everything consumed
+        snapshot();
+    }
+
+    private void trackOffset(ConsumerRecord<String, byte[]> record) {
+        nextOffsets.put(new TopicPartition(record.topic(), record.partition()), record.offset() + 1);
+    }
+
+    private String layout() {
+        return participants.stream().map(Snapshottable::snapshotLayout).collect(Collectors.joining(";"));
+    }
+
+    private int snapshotSize(Map<TopicPartition, Long> offsets) {
+        int size = 2 * Integer.BYTES + Long.BYTES + SnapshotBuffers.sizeOf(layout()) + Integer.BYTES;
+        for (TopicPartition partition : offsets.keySet()) {
+            size += SnapshotBuffers.sizeOf(partition.topic()) + Integer.BYTES + Long.BYTES;
+        }
+        for (Snapshottable participant : participants) {
+            size += Integer.BYTES + participant.snapshotSize();
+        }
+        // Trailing CRC32 of everything before it
+        return size + Long.BYTES;
+    }
+
+    private void writeSnapshot(ByteBuffer buffer, Map<TopicPartition, Long> offsets) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(System.currentTimeMillis());
+        SnapshotBuffers.putString(buffer, layout());
+
+        buffer.putInt(offsets.size());
+        offsets.forEach((partition, offset) -> {
+            SnapshotBuffers.putString(buffer, partition.topic());
+            buffer.putInt(partition.partition());
+            buffer.putLong(offset);
+        });
+        for (Snapshottable participant : participants) {
+            buffer.putInt(participant.snapshotSize());
+            participant.writeSnapshot(buffer);
+        }
+    }
+
+    private static String describe(Map<TopicPartition, Long> offsets) {
+        return offsets.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey((a, b) -> a.toString().compareTo(b.toString())))
+                .map(entry -> entry.getKey() + "@" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,25 @@
+package com.pcrypto.analytics_service.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * State that {@link SnapshotStateStore} writes to and restores from its snapshot file. The store calls
+ * {@link #snapshotSize()} and {@link #writeSnapshot} while no events are being applied, so both see the same state.
+ */
+public interface Snapshottable {
+
+    /**
+     * Describes the binary layout (format version and any size that depends on configuration). A snapshot written
+     * under a different layout is discarded rather than misread.
+     */
+    String snapshotLayout();
+
+    int snapshotSize();
+
+    void writeSnapshot(ByteBuffer buffer);
+
+    /**
+     * Called once at startup, before any event is consumed, with exactly the bytes {@link #writeSnapshot} wrote.
+     */
+    void restoreSnapshot(ByteBuffer buffer);
+}
@@ -0,0 +1,35 @@
+package com.pcrypto.analytics_service.streams;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import patient.events.PatientEvent;
+
+/**
+ * Protobuf {@link PatientEvent} serde for the topology's source and repartition topics. A payload that does not
+ * parse fails with a {@link SerializationException}, which the configured deserialization exception handler logs and
+ * skips.
+ */
+public class PatientEventSerde implements Serde<PatientEvent> {
+
+    @Override
+    public Serializer<PatientEvent> serializer() {
+        return (topic, event) -> event == null ? null : event.toByteArray();
+    }
+
+    @Override
+    public Deserializer<PatientEvent> deserializer() {
+        return (topic, data) -> {
+            if (data == null) {
+                return null;
+            }
+            try {
+                return PatientEvent.parseFrom(data);
+            } catch (InvalidProtocolBufferException e) {
+                throw new SerializationException("Error deserializing the patient event from " + topic, e);
+            }
+        };
+    }
+}
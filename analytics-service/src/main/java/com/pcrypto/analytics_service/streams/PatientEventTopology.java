@@ -0,0 +1,69 @@
+package com.pcrypto.analytics_service.streams;
+
+import com.pcrypto.analytics_service.kafka.KafkaConsumer;
+import com.pcrypto.analytics_service.util.EmailDomains;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+import patient.events.PatientEvent;
+
+import java.time.Duration;
+
+/**
+ * Kafka Streams topology over the patient topic. Events are re-keyed (repartitioned) by event type and by email
+ * domain and counted into three named stores, each backed by a changelog topic:
+ * <ul>
+ *     <li>{@link #EVENT_TYPE_COUNTS_STORE} - all-time count per event type</li>
+ *     <li>{@link #EVENT_TYPE_MINUTE_COUNTS_STORE} - count per event type per one-minute tumbling window</li>
+ *     <li>{@link #EMAIL_DOMAIN_COUNTS_STORE} - all-time count per email domain</li>
+ * </ul>
+ * Repartition topics and stores are named explicitly, so their internal topics keep their names as the topology
+ * evolves.
+ */
+public final class PatientEventTopology {
+
+    public static final String EVENT_TYPE_COUNTS_STORE = "event-type-counts";
+    public static final String EVENT_TYPE_MINUTE_COUNTS_STORE = "event-type-minute-counts";
+    public static final String EMAIL_DOMAIN_COUNTS_STORE = "email-domain-counts";
+
+    public static final Duration WINDOW_SIZE = Duration.ofMinutes(1);
+    // Events arriving up to a minute late still count in their own window
+    public static final Duration WINDOW_GRACE = Duration.ofMinutes(1);
+    public static final Duration WINDOW_RETENTION = Duration.ofHours(24);
+
+    private PatientEventTopology() {
+    }
+
+    public static void build(StreamsBuilder builder) {
+        KStream<String, PatientEvent> events = builder.stream(KafkaConsumer.PATIENT_TOPIC,
+                Consumed.with(Serdes.String(), new PatientEventSerde()));
+
+        KGroupedStream<String, PatientEvent> byEventType = events.groupBy(
+                (patientId, event) -> event.getEventType(),
+                Grouped.with("by-event-type", Serdes.String(), new PatientEventSerde()));
+
+        byEventType.count(Materialized.<String, Long, KeyValueStore<Bytes, byte[]>>as(EVENT_TYPE_COUNTS_STORE)
+                .withKeySerde(Serdes.String())
+                .withValueSerde(Serdes.Long()));
+
+        byEventType.windowedBy(TimeWindows.ofSizeAndGrace(WINDOW_SIZE, WINDOW_GRACE))
+                .count(Materialized.<String, Long, WindowStore<Bytes, byte[]>>as(EVENT_TYPE_MINUTE_COUNTS_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long())
+                        .withRetention(WINDOW_RETENTION));
+
+        events.flatMapValues(event -> EmailDomains.domainOf(event.getEmail()).stream().toList())
+                .groupBy((patientId, domain) -> domain, Grouped.with("by-email-domain", Serdes.String(), Serdes.String()))
+                .count(Materialized.<String, Long, KeyValueStore<Bytes, byte[]>>as(EMAIL_DOMAIN_COUNTS_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long()));
+    }
+}
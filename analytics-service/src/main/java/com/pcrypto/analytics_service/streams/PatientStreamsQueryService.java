@@ -0,0 +1,158 @@
+package com.pcrypto.analytics_service.streams;
+
+import com.pcrypto.analytics_service.dto.KeyCountDTO;
+import com.pcrypto.analytics_service.dto.WindowedCountDTO;
+import com.pcrypto.analytics_service.dto.WindowedCountsDTO;
+import com.pcrypto.analytics_service.exception.StateStoreUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.QueryableStoreType;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Interactive queries over the {@link PatientEventTopology} stores. Each key lives in one partition, owned by one
+ * instance (its {@code application.server}) and replicated to {@code num.standby.replicas} others. A query is
+ * answered by the active owner - locally or by forwarding to it. If the owner does not answer (e.g. it just died and
+ * the group has not rebalanced yet) and this instance holds a standby of the partition, the standby answers instead:
+ * it may lag slightly, but reads stay available through the failover.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "analytics.kafka.listener.mode", havingValue = "streams")
+public class PatientStreamsQueryService {
+
+    // Set on forwarded queries, so an instance that disagrees about the owner answers (or fails) instead of bouncing
+    public static final String FORWARDED_HEADER = "X-Streams-Forwarded";
+
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+    private final HostInfo self;
+    private final RestClient restClient;
+
+    public PatientStreamsQueryService(StreamsBuilderFactoryBean streamsBuilderFactoryBean,
+                                      @Value("${spring.kafka.streams.properties.application.server}") String applicationServer,
+                                      RestClient.Builder restClientBuilder) {
+        this.streamsBuilderFactoryBean = streamsBuilderFactoryBean;
+        this.self = HostInfo.buildFromEndpoint(applicationServer);
+        this.restClient = restClientBuilder.build();
+    }
+
+    public KeyCountDTO getEventTypeCount(String eventType, boolean forwarded) {
+        return query(PatientEventTopology.EVENT_TYPE_COUNTS_STORE, eventType, forwarded, KeyCountDTO.class,
+                partition -> new KeyCountDTO(eventType,
+                        count(PatientEventTopology.EVENT_TYPE_COUNTS_STORE, eventType, partition)),
+                "/analytics/streams/event-types/{eventType}", eventType);
+    }
+
+    public KeyCountDTO getEmailDomainCount(String domain, boolean forwarded) {
+        return query(PatientEventTopology.EMAIL_DOMAIN_COUNTS_STORE, domain, forwarded, KeyCountDTO.class,
+                partition -> new KeyCountDTO(domain,
+                        count(PatientEventTopology.EMAIL_DOMAIN_COUNTS_STORE, domain, partition)),
+                "/analytics/streams/email-domains/{domain}", domain);
+    }
+
+    /**
+     * Per-minute counts of {@code eventType} over the last {@code minutes} windows, the one in progress included.
+     */
+    public WindowedCountsDTO getEventTypeWindows(String eventType, int minutes, boolean forwarded) {
+        return query(PatientEventTopology.EVENT_TYPE_MINUTE_COUNTS_STORE, eventType, forwarded, WindowedCountsDTO.class,
+                partition -> new WindowedCountsDTO(eventType, windows(eventType, minutes, partition)),
+                "/analytics/streams/event-types/{eventType}/windows?minutes={minutes}", eventType, minutes);
+    }
+
+    private <T> T query(String storeName, String key, boolean forwarded, Class<T> responseType,
+                        IntFunction<T> localQuery, String path, Object... pathVariables) {
+        KeyQueryMetadata metadata = kafkaStreams().queryMetadataForKey(storeName, key, Serdes.String().serializer());
+        if (metadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(metadata)) {
+            throw new StateStoreUnavailableException("No owner for key " + key + " in " + storeName);
+        }
+        if (forwarded || self.equals(metadata.activeHost())) {
+            return queryLocally(storeName, localQuery, metadata.partition());
+        }
+
+        HostInfo owner = metadata.activeHost();
+        log.debug("Forwarding {} query for {} to {}", storeName, key, owner);
+        try {
+            return restClient.get()
+                    .uri("http://" + owner.host() + ":" + owner.port() + path, pathVariables)
+                    .header(FORWARDED_HEADER, "true")
+                    .retrieve()
+                    .body(responseType);
+        } catch (RestClientException e) {
+            if (metadata.standbyHosts().contains(self)) {
+                log.warn("Owner {} of {} did not answer, reading the local standby {}", owner, storeName, e.getMessage());
+                return queryLocally(storeName, localQuery, metadata.partition());
+            }
+            throw new StateStoreUnavailableException("Owner " + owner + " of " + storeName + " did not answer: "
+                    + e.getMessage());
+        }
+    }
+
+    private <T> T queryLocally(String storeName, IntFunction<T> localQuery, int partition) {
+        try {
+            return localQuery.apply(partition);
+        } catch (InvalidStateStoreException e) {
+            // Thrown while the partition migrates or its store is still restoring from the changelog
+            throw new StateStoreUnavailableException(storeName + ": " + e.getMessage());
+        }
+    }
+
+    private long count(String storeName, String key, int partition) {
+        ReadOnlyKeyValueStore<String, Long> store = store(storeName, QueryableStoreTypes.keyValueStore(), partition);
+        Long count = store.get(key);
+        return count != null ? count : 0;
+    }
+
+    private List<WindowedCountDTO> windows(String eventType, int minutes, int partition) {
+        ReadOnlyWindowStore<String, Long> store = store(PatientEventTopology.EVENT_TYPE_MINUTE_COUNTS_STORE,
+                QueryableStoreTypes.windowStore(), partition);
+        long sizeMs = PatientEventTopology.WINDOW_SIZE.toMillis();
+        // Nothing older than the store's retention is kept anyway
+        minutes = Math.max(1, Math.min(minutes, (int) (PatientEventTopology.WINDOW_RETENTION.toMillis() / sizeMs)));
+        long currentWindowStart = Math.floorDiv(System.currentTimeMillis(), sizeMs) * sizeMs;
+        Instant from = Instant.ofEpochMilli(currentWindowStart - (minutes - 1) * sizeMs);
+
+        List<WindowedCountDTO> windows = new ArrayList<>();
+        try (WindowStoreIterator<Long> iterator = store.fetch(eventType, from, Instant.ofEpochMilli(currentWindowStart))) {
+            while (iterator.hasNext()) {
+                KeyValue<Long, Long> window = iterator.next();
+                windows.add(new WindowedCountDTO(Instant.ofEpochMilli(window.key),
+                        Instant.ofEpochMilli(window.key + sizeMs), window.value));
+            }
+        }
+        return windows;
+    }
+
+    private <S> S store(String storeName, QueryableStoreType<S> storeType, int partition) {
+        return kafkaStreams().store(StoreQueryParameters.fromNameAndType(storeName, storeType)
+                .withPartition(partition)
+                .enableStaleStores());
+    }
+
+    private KafkaStreams kafkaStreams() {
+        KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
+        if (kafkaStreams == null) {
+            throw new StateStoreUnavailableException("Kafka Streams is not running");
+        }
+        return kafkaStreams;
+    }
+}
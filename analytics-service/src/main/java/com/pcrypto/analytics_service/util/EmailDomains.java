@@ -0,0 +1,21 @@
+package com.pcrypto.analytics_service.util;
+
+import java.util.Locale;
+import java.util.Optional;
+
+public final class EmailDomains {
+
+    private EmailDomains() {
+    }
+
+    /**
+     * Lower-cased part after the last {@code @}, or empty if the address has none.
+     */
+    public static Optional<String> domainOf(String email) {
+        int at = email.lastIndexOf('@');
+        if (at < 0 || at == email.length() - 1) {
+            return Optional.empty();
+        }
+        return Optional.of(email.substring(at + 1).toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,153 @@
+package com.pcrypto.analytics_service.kafka;
+
+import com.pcrypto.analytics_service.metrics.EventWindowMetrics;
+import com.pcrypto.analytics_service.sketch.PatientSketches;
+import com.pcrypto.analytics_service.store.SnapshotStateStore;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import patient.events.PatientEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains a burst of patient events from an embedded broker through {@link KafkaConsumer} in record and batch mode
+ * at different concurrencies, and reports events per second. Not part of the regular build - run it explicitly with
+ * {@code mvn test -Dtest=PatientEventConsumerBenchmark [-Dbenchmark.events=200000]}.
+ */
+class PatientEventConsumerBenchmark {
+
+    private static final int EVENTS = Integer.getInteger("benchmark.events", 200_000);
+    private static final int PARTITIONS = 6;
+    private static final String TOPIC = "patient-benchmark";
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    private record Setting(String name, boolean batch, int concurrency, int maxPollRecords, int fetchMinBytes) {
+    }
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS);
+        broker.brokerProperty("group.initial.rebalance.delay.ms", "0");
+        broker.afterPropertiesSet();
+
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+            admin.createTopics(List.of(new NewTopic(TOPIC, PARTITIONS, (short) 1))).all().get();
+        }
+        produceBurst();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @Test
+    void compareListenerSettings() throws Exception {
+        List<Setting> settings = List.of(
+                new Setting("record x1 (previous)", false, 1, 500, 1),
+                new Setting("record x6", false, 6, 500, 1),
+                new Setting("batch x1", true, 1, 500, 65_536),
+                new Setting("batch x6", true, 6, 500, 65_536),
+                new Setting("batch x6 poll-2000", true, 6, 2_000, 65_536));
+
+        KafkaConsumer consumer = new KafkaConsumer(new EventWindowMetrics(64),
+                new PatientSketches(14, 0.001, 0.01, 100, 10), new SnapshotStateStore(List.of(), false, "state"));
+
+        // Warm up the JIT before measuring anything
+        run(new Setting("warmup", true, 6, 500, 65_536), consumer);
+
+        System.out.printf("%n%-22s %12s %10s%n", "setting", "events/s", "seconds");
+        for (Setting setting : settings) {
+            run(setting, consumer);
+        }
+    }
+
+    private void run(Setting setting, KafkaConsumer consumer) throws Exception {
+        Map<String, Object> config = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                // New group per setting, so each one drains the whole burst from the start
+                ConsumerConfig.GROUP_ID_CONFIG, "benchmark-" + UUID.randomUUID(),
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, setting.maxPollRecords(),
+                ConsumerConfig.FETCH_MIN_BYTES_CONFIG, setting.fetchMinBytes(),
+                ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 100);
+        DefaultKafkaConsumerFactory<String, byte[]> consumerFactory =
+                new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), new ByteArrayDeserializer());
+
+        CountDownLatch consumed = new CountDownLatch(EVENTS);
+        ContainerProperties containerProperties = new ContainerProperties(TOPIC);
+        if (setting.batch()) {
+            containerProperties.setMessageListener((BatchMessageListener<String, byte[]>) records -> {
+                consumer.consumeEvents(records);
+                records.forEach(record -> consumed.countDown());
+            });
+        } else {
+            containerProperties.setMessageListener((MessageListener<String, byte[]>) (ConsumerRecord<String, byte[]> record) -> {
+                consumer.consumeEvent(record);
+                consumed.countDown();
+            });
+        }
+
+        ConcurrentMessageListenerContainer<String, byte[]> container =
+                new ConcurrentMessageListenerContainer<>(consumerFactory, containerProperties);
+        container.setConcurrency(setting.concurrency());
+
+        long start = System.nanoTime();
+        container.start();
+        boolean drained = consumed.await(5, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        container.stop();
+
+        if (!setting.name().equals("warmup")) {
+            System.out.printf("%-22s %,12.0f %10.2f%s%n", setting.name(), EVENTS / seconds, seconds,
+                    drained ? "" : "  (timed out)");
+        }
+    }
+
+    private static void produceBurst() {
+        Map<String, Object> config = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.LINGER_MS_CONFIG, 20,
+                ProducerConfig.BATCH_SIZE_CONFIG, 131_072);
+
+        try (KafkaProducer<String, byte[]> producer =
+                     new KafkaProducer<>(config, new StringSerializer(), new ByteArraySerializer())) {
+            for (int i = 0; i < EVENTS; i++) {
+                String patientId = UUID.randomUUID().toString();
+                byte[] payload = PatientEvent.newBuilder()
+                        .setPatientId(patientId)
+                        .setName("Patient " + i + " Lastname" + (i % 97))
+                        .setEmail("patient" + i + "@clinic" + (i % 13) + ".example.com")
+                        .setEventType("PATIENT_CREATED")
+                        .build()
+                        .toByteArray();
+                producer.send(new ProducerRecord<>(TOPIC, patientId, payload));
+            }
+            producer.flush();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.pcrypto.analytics_service.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WindowedCounterTest {
+
+    private static final long BUCKET_MS = 1_000;
+    private static final int BUCKETS = 120;
+
+    private final WindowedCounter counter = new WindowedCounter(BUCKET_MS, BUCKETS);
+
+    @Test
+    void sumsBucketsInRange() {
+        increment(1_000, 3);
+        increment(1_001, 2);
+        increment(1_005, 1);
+
+        assertEquals(3, counter.sum(1_000, 1_000));
+        assertEquals(5, counter.sum(1_000, 1_001));
+        assertEquals(6, counter.sum(1_000, 1_005));
+        assertEquals(0, counter.sum(1_002, 1_004));
+    }
+
+    @Test
+    void nextLapOverwritesSlot() {
+        increment(1_000, 4);
+        increment(1_000 + BUCKETS, 1);
+
+        assertEquals(1, counter.sum(1_000 + BUCKETS, 1_000 + BUCKETS));
+        // The old bucket fell out of the ring rather than being merged into the new one
+        assertEquals(0, counter.sum(1_000, 1_000));
+    }
+
+    @Test
+    void dropsEventsOlderThanRing() {
+        increment(1_000 + BUCKETS, 1);
+        increment(1_000, 5);
+
+        assertEquals(1, counter.sum(1_000 + BUCKETS, 1_000 + BUCKETS));
+        assertEquals(0, counter.sum(1_000, 1_000));
+    }
+
+    @Test
+    void countsAfterSlotIdleForMoreThanTwoToTheTwentyFourBuckets() {
+        long bucket = 1_000;
+        // Same slot, over 2^24 buckets (~194 days of 1-second buckets) later - once misread as a bucket in the past
+        long muchLater = bucket + BUCKETS * ((1L << 24) / BUCKETS + 1);
+        increment(bucket, 1);
+        increment(muchLater, 2);
+
+        assertEquals(2, counter.sum(muchLater, muchLater));
+        assertEquals(0, counter.sum(bucket, bucket));
+    }
+
+    @Test
+    void restoresFromSnapshot() {
+        increment(1_000, 3);
+        increment(1_050, 7);
+
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * BUCKETS);
+        counter.writeTo(buffer);
+        buffer.flip();
+        WindowedCounter restored = new WindowedCounter(BUCKET_MS, BUCKETS);
+        restored.readFrom(buffer);
+
+        assertEquals(10, restored.sum(1_000, 1_050));
+        restored.increment(1_050 * BUCKET_MS);
+        assertEquals(8, restored.sum(1_050, 1_050));
+    }
+
+    private void increment(long bucket, int times) {
+        for (int i = 0; i < times; i++) {
+            counter.increment(bucket * BUCKET_MS);
+        }
+    }
+}
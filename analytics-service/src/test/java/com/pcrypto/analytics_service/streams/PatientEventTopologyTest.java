@@ -0,0 +1,112 @@
+package com.pcrypto.analytics_service.streams;
+
+import com.pcrypto.analytics_service.kafka.KafkaConsumer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.errors.LogAndContinueExceptionHandler;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import patient.events.PatientEvent;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PatientEventTopologyTest {
+
+    private static final Instant MINUTE = Instant.parse("2025-01-01T10:00:00Z");
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, byte[]> patientTopic;
+
+    @BeforeEach
+    void setUp() {
+        StreamsBuilder builder = new StreamsBuilder();
+        PatientEventTopology.build(builder);
+
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "analytics-service-streams-test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        config.put(StreamsConfig.DEFAULT_DESERIALIZATION_EXCEPTION_HANDLER_CLASS_CONFIG,
+                LogAndContinueExceptionHandler.class);
+
+        driver = new TopologyTestDriver(builder.build(), config);
+        patientTopic = driver.createInputTopic(KafkaConsumer.PATIENT_TOPIC,
+                new StringSerializer(), new ByteArraySerializer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void countsEventsPerTypeAndEmailDomain() {
+        send("p1", "a@Clinic.com", "PATIENT_CREATED", MINUTE);
+        send("p2", "b@clinic.com", "PATIENT_CREATED", MINUTE);
+        send("p1", "a@other.org", "PATIENT_UPDATED", MINUTE);
+
+        KeyValueStore<String, Long> eventTypes =
+                driver.getKeyValueStore(PatientEventTopology.EVENT_TYPE_COUNTS_STORE);
+        assertEquals(2L, eventTypes.get("PATIENT_CREATED"));
+        assertEquals(1L, eventTypes.get("PATIENT_UPDATED"));
+
+        KeyValueStore<String, Long> domains =
+                driver.getKeyValueStore(PatientEventTopology.EMAIL_DOMAIN_COUNTS_STORE);
+        assertEquals(2L, domains.get("clinic.com"));
+        assertEquals(1L, domains.get("other.org"));
+    }
+
+    @Test
+    void countsEventTypesPerMinuteWindow() {
+        send("p1", "a@clinic.com", "PATIENT_CREATED", MINUTE.plusSeconds(5));
+        send("p2", "b@clinic.com", "PATIENT_CREATED", MINUTE.plusSeconds(59));
+        send("p3", "c@clinic.com", "PATIENT_CREATED", MINUTE.plusSeconds(61));
+        // Late, but within the grace period of its window
+        send("p4", "d@clinic.com", "PATIENT_CREATED", MINUTE.plusSeconds(30));
+
+        WindowStore<String, Long> windows =
+                driver.getWindowStore(PatientEventTopology.EVENT_TYPE_MINUTE_COUNTS_STORE);
+        List<KeyValue<Long, Long>> counts = new ArrayList<>();
+        try (WindowStoreIterator<Long> iterator =
+                     windows.fetch("PATIENT_CREATED", MINUTE, MINUTE.plusSeconds(60))) {
+            iterator.forEachRemaining(counts::add);
+        }
+
+        assertEquals(List.of(KeyValue.pair(MINUTE.toEpochMilli(), 3L),
+                KeyValue.pair(MINUTE.plusSeconds(60).toEpochMilli(), 1L)), counts);
+    }
+
+    @Test
+    void skipsRecordsThatAreNotPatientEvents() {
+        patientTopic.pipeInput("p1", new byte[]{(byte) 0xff, 0x01, 0x02}, MINUTE);
+        send("p2", "b@clinic.com", "PATIENT_CREATED", MINUTE);
+
+        KeyValueStore<String, Long> eventTypes =
+                driver.getKeyValueStore(PatientEventTopology.EVENT_TYPE_COUNTS_STORE);
+        assertEquals(1L, eventTypes.get("PATIENT_CREATED"));
+    }
+
+    private void send(String patientId, String email, String eventType, Instant timestamp) {
+        byte[] event = PatientEvent.newBuilder()
+                .setPatientId(patientId)
+                .setName("Patient " + patientId)
+                .setEmail(email)
+                .setEventType(eventType)
+                .build()
+                .toByteArray();
+        patientTopic.pipeInput(patientId, event, timestamp);
+    }
+}
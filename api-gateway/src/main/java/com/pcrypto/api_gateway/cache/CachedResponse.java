@@ -0,0 +1,23 @@
+package com.pcrypto.api_gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A cached {@code 200 OK} response. {@code headers} only holds the entity headers worth replaying
+ * ({@link ResponseCache#REPLAYED_HEADERS}).
+ */
+public record CachedResponse(HttpHeaders headers, byte[] body, String eTag, long storedAtMs, long freshUntilMs) {
+
+    public boolean isFresh(long nowMs) {
+        return nowMs < freshUntilMs;
+    }
+
+    public CachedResponse revalidated(long nowMs, long freshUntilMs) {
+        return new CachedResponse(headers, body, eTag, nowMs, freshUntilMs);
+    }
+
+    int weight() {
+        // Body plus a rough allowance for the headers and map entry
+        return body.length + 256;
+    }
+}
@@ -0,0 +1,129 @@
+package com.pcrypto.api_gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Responses for one route, grouped by request path so a write to a path drops every principal's copy at once. Memory
+ * is bounded by the total body size ({@code maxSizeBytes}); entries stay one extra {@code maxTtlMs} past freshness
+ * so they can be revalidated with {@code If-None-Match} instead of fetched again.
+ * <p>
+ * A response is only stored if its request started after the path was last invalidated, so a read that overlapped a
+ * write cannot put the old body back. Invalidation is local to this gateway instance.
+ */
+public class ResponseCache {
+
+    public static final List<String> REPLAYED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.VARY);
+
+    private final long maxTtlMs;
+    private final int maxEntryBytes;
+    // request path -> (principal + query string) -> response
+    private final Cache<String, Map<String, CachedResponse>> responsesByPath;
+    // request path -> System.nanoTime() of its last invalidation, kept as long as an entry could live
+    private final Cache<String, Long> invalidatedAtNanos;
+    private final long invalidationRetentionNanos;
+
+    public ResponseCache(long maxTtlMs, long maxSizeBytes, int maxEntryBytes) {
+        this.maxTtlMs = maxTtlMs;
+        this.maxEntryBytes = maxEntryBytes;
+        this.responsesByPath = Caffeine.newBuilder()
+                .maximumWeight(maxSizeBytes)
+                .<String, Map<String, CachedResponse>>weigher((path, responses) -> responses.values().stream()
+                        .mapToInt(CachedResponse::weight)
+                        .sum())
+                .expireAfterWrite(Duration.ofMillis(maxTtlMs * 2))
+                .build();
+        this.invalidatedAtNanos = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(maxTtlMs * 2))
+                .build();
+        this.invalidationRetentionNanos = Duration.ofMillis(maxTtlMs * 2).toNanos();
+    }
+
+    public CachedResponse get(String path, String variant) {
+        Map<String, CachedResponse> responses = responsesByPath.getIfPresent(path);
+        return responses != null ? responses.get(variant) : null;
+    }
+
+    /**
+     * Stores {@code response} unless {@code path} was invalidated at or after {@code requestStartNanos}
+     * ({@link System#nanoTime()} when the request that produced it began).
+     */
+    public void put(String path, String variant, CachedResponse response, long requestStartNanos) {
+        if (System.nanoTime() - requestStartNanos >= invalidationRetentionNanos) {
+            // Older than any invalidation we still remember - cannot tell whether a write overlapped it
+            return;
+        }
+        // Copy-on-write, so Caffeine re-weighs the group on every change
+        responsesByPath.asMap().compute(path, (key, responses) -> {
+            Long invalidatedAt = invalidatedAtNanos.getIfPresent(key);
+            if (invalidatedAt != null && invalidatedAt - requestStartNanos >= 0) {
+                return responses;
+            }
+            Map<String, CachedResponse> updated = responses != null ? new HashMap<>(responses) : new HashMap<>();
+            updated.put(variant, response);
+            return updated;
+        });
+    }
+
+    public void invalidate(String path) {
+        // Marker first: a put racing with this either sees it or is removed right after
+        invalidatedAtNanos.put(path, System.nanoTime());
+        responsesByPath.invalidate(path);
+    }
+
+    public long size() {
+        return responsesByPath.estimatedSize();
+    }
+
+    public long weightedSize() {
+        return responsesByPath.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    public int maxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    /**
+     * How long a response may be served without revalidation, or {@code -1} if it must not be stored: only responses
+     * that explicitly allow it via {@code s-maxage} / {@code max-age} are cached, capped at {@code maxTtlMs}.
+     * {@code private} is accepted because entries are never shared between principals.
+     */
+    public long freshnessMs(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return -1;
+        }
+
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.equals("no-store") || trimmed.equals("no-cache")) {
+                return -1;
+            }
+            if (trimmed.startsWith("max-age=")) {
+                maxAge = parseSeconds(trimmed.substring("max-age=".length()));
+            } else if (trimmed.startsWith("s-maxage=")) {
+                sharedMaxAge = parseSeconds(trimmed.substring("s-maxage=".length()));
+            }
+        }
+        long seconds = sharedMaxAge >= 0 ? sharedMaxAge : maxAge;
+        return seconds > 0 ? Math.min(seconds * 1000, maxTtlMs) : -1;
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.pcrypto.api_gateway.concurrency;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive in-flight limit for one route - a gradient controller in the style of Envoy's adaptive concurrency
+ * filter and Netflix's concurrency-limits.
+ * <p>
+ * Every {@code minRttIntervalMs} (plus up to half as much again at random, so gateway instances do not probe in
+ * lockstep) the limit is briefly pinned to {@code minLimit} so the backend's queue drains, and the fastest of the next
+ * {@code probeRequests} responses becomes the no-load latency (minRTT). A probe that cannot collect them within
+ * {@value #PROBE_TIMEOUT_WINDOWS} sample windows ends anyway and keeps the previous minRTT. In between, the p90
+ * latency of each {@code sampleWindowMs} window is compared with it:
+ * {@code limit = limit * clamp(minRtt * (1 + buffer) / p90, 0.5, 2) + sqrt(limit)}. A failed request cuts the limit
+ * by {@code backoffRatio}. Admission is a single atomic increment, so excess requests are turned away immediately
+ * instead of queueing in the gateway.
+ */
+public class GradientConcurrencyLimiter {
+
+    private static final int MAX_WINDOW_SAMPLES = 1024;
+    private static final double PROBE_JITTER = 0.5;
+    private static final int PROBE_TIMEOUT_WINDOWS = 3;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double buffer;
+    private final double backoffRatio;
+    private final long sampleWindowNanos;
+    private final long minRttIntervalNanos;
+    private final int probeRequests;
+    private final long probeTimeoutNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private long minRttNanos;
+    private boolean probing;
+    private long probeStartNanos;
+    private long probeMinRttNanos;
+    private int probeSamples;
+    private long nextProbeNanos;
+    private long windowStartNanos;
+    private final long[] windowSamples = new long[MAX_WINDOW_SAMPLES];
+    private int windowSampleCount;
+    private int windowMaxInFlight;
+
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double buffer, double backoffRatio,
+                                      long sampleWindowMs, long minRttIntervalMs, int probeRequests) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Expected 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.buffer = buffer;
+        this.backoffRatio = backoffRatio;
+        this.sampleWindowNanos = TimeUnit.MILLISECONDS.toNanos(sampleWindowMs);
+        this.minRttIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minRttIntervalMs);
+        this.probeRequests = probeRequests;
+        this.probeTimeoutNanos = sampleWindowNanos * PROBE_TIMEOUT_WINDOWS;
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+        startProbe(System.nanoTime());
+    }
+
+    /**
+     * @return {@code true} if the request may proceed; it must then be finished with exactly one of
+     * {@link #onSuccess}, {@link #onDropped} or {@link #onIgnored}
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void onSuccess(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        update(rttNanos, inFlightAtCompletion);
+    }
+
+    public synchronized void onDropped() {
+        inFlight.decrementAndGet();
+        long now = System.nanoTime();
+        // Failures never count as probe samples, so only the time bound can end a probe while the backend errors
+        if (probing && now - probeStartNanos >= probeTimeoutNanos) {
+            endProbe(now);
+        }
+        setEstimatedLimit(estimatedLimit * backoffRatio);
+    }
+
+    /** Client cancelled - no signal about the backend either way. */
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtCompletion) {
+        long now = System.nanoTime();
+
+        if (probing) {
+            // Only requests admitted under the pinned limit saw a drained backend
+            if (now - rttNanos >= probeStartNanos) {
+                probeMinRttNanos = Math.min(probeMinRttNanos, rttNanos);
+                probeSamples++;
+            }
+            if (probeSamples >= probeRequests || now - probeStartNanos >= probeTimeoutNanos) {
+                endProbe(now);
+            }
+            return;
+        }
+        if (now - nextProbeNanos >= 0) {
+            startProbe(now);
+            return;
+        }
+
+        if (windowSampleCount < MAX_WINDOW_SAMPLES) {
+            windowSamples[windowSampleCount++] = rttNanos;
+        }
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtCompletion);
+        if (now - windowStartNanos < sampleWindowNanos) {
+            return;
+        }
+
+        Arrays.sort(windowSamples, 0, windowSampleCount);
+        if (minRttNanos == 0) {
+            // The first probe timed out empty-handed - the fastest response so far is the best estimate
+            minRttNanos = windowSamples[0];
+        }
+        long p90 = windowSamples[(int) Math.ceil(windowSampleCount * 0.9) - 1];
+        double gradient = Math.clamp(minRttNanos * (1 + buffer) / p90, 0.5, 2.0);
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        // Not using the current limit, so fast responses say nothing about a higher one
+        if (newLimit <= estimatedLimit || windowMaxInFlight * 2 >= estimatedLimit) {
+            setEstimatedLimit(newLimit);
+        }
+        resetWindow(now);
+    }
+
+    private void startProbe(long now) {
+        probing = true;
+        probeStartNanos = now;
+        probeMinRttNanos = Long.MAX_VALUE;
+        probeSamples = 0;
+        limit = minLimit;
+    }
+
+    private void endProbe(long now) {
+        if (probeMinRttNanos != Long.MAX_VALUE) {
+            minRttNanos = probeMinRttNanos;
+        }
+        probing = false;
+        long jitterNanos = (long) (ThreadLocalRandom.current().nextDouble() * PROBE_JITTER * minRttIntervalNanos);
+        nextProbeNanos = now + minRttIntervalNanos + jitterNanos;
+        resetWindow(now);
+        limit = (int) estimatedLimit;
+    }
+
+    private void resetWindow(long now) {
+        windowStartNanos = now;
+        windowSampleCount = 0;
+        windowMaxInFlight = 0;
+    }
+
+    private void setEstimatedLimit(double newLimit) {
+        estimatedLimit = Math.clamp(newLimit, minLimit, maxLimit);
+        if (!probing) {
+            limit = (int) estimatedLimit;
+        }
+    }
+}
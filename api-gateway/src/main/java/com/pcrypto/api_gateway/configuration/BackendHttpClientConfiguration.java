@@ -0,0 +1,90 @@
+package com.pcrypto.api_gateway.configuration;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Replaces the gateway's {@link HttpClient} (used by every route and by the JWKS {@code WebClient}) with one whose
+ * connection provider has a dedicated pool per configured backend.
+ */
+@Configuration
+@EnableConfigurationProperties(BackendPoolProperties.class)
+public class BackendHttpClientConfiguration {
+
+    @Bean
+    public HttpClientFactory gatewayHttpClientFactory(HttpClientProperties properties,
+                                                      ServerProperties serverProperties,
+                                                      List<HttpClientCustomizer> customizers,
+                                                      HttpClientSslConfigurer sslConfigurer,
+                                                      BackendPoolProperties backendPoolProperties) {
+        return new BackendHttpClientFactory(properties, serverProperties, sslConfigurer, customizers, backendPoolProperties);
+    }
+
+    static class BackendHttpClientFactory extends HttpClientFactory {
+
+        private final BackendPoolProperties backends;
+
+        BackendHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                                 HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+                                 BackendPoolProperties backends) {
+            super(properties, serverProperties, sslConfigurer, customizers);
+            this.backends = backends;
+        }
+
+        @Override
+        protected HttpClient createInstance() {
+            HttpClient httpClient = super.createInstance();
+            if (backends.isH2c()) {
+                httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+            }
+            if (backends.isMetrics()) {
+                // One uri tag value - patient ids in paths would otherwise create a meter per patient
+                httpClient = httpClient.metrics(true, uri -> "/");
+            }
+            return httpClient;
+        }
+
+        @Override
+        protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+            ConnectionProvider defaults = super.buildConnectionProvider(properties);
+            ConnectionProvider.Builder builder = defaults.mutate();
+            if (builder == null) {
+                // spring.cloud.gateway.httpclient.pool.type=DISABLED - nothing to pool
+                return defaults;
+            }
+            defaults.disposeLater().subscribe();
+
+            builder.metrics(backends.isMetrics());
+            backends.getPools().forEach((name, pool) -> {
+                URI uri = pool.getUri();
+                if (uri == null || uri.getHost() == null) {
+                    throw new IllegalArgumentException("gateway.backends.pools." + name + ".uri must be an absolute URI");
+                }
+                int port = uri.getPort() != -1 ? uri.getPort() : ("https".equals(uri.getScheme()) ? 443 : 80);
+                // Routes connect by host name, so pools are keyed by the unresolved address
+                builder.forRemoteHost(InetSocketAddress.createUnresolved(uri.getHost(), port), spec -> spec
+                        .maxConnections(pool.getMaxConnections())
+                        .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                        .pendingAcquireTimeout(Duration.ofMillis(pool.getPendingAcquireTimeoutMs()))
+                        .maxIdleTime(Duration.ofMillis(pool.getMaxIdleTimeMs()))
+                        .maxLifeTime(Duration.ofMillis(pool.getMaxLifeTimeMs()))
+                        .evictInBackground(Duration.ofMillis(pool.getEvictionIntervalMs())));
+            });
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.pcrypto.api_gateway.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection pool per backend service ({@code gateway.backends.pools.<name>.*}), keyed by the backend's
+ * {@code uri} - the same host and port the routes point at.
+ */
+@ConfigurationProperties(prefix = "gateway.backends")
+public class BackendPoolProperties {
+
+    // Offer HTTP/2 cleartext (h2c upgrade); backends that do not speak it keep using HTTP/1.1
+    private boolean h2c = false;
+
+    // reactor.netty.connection.provider.* and reactor.netty.http.client.* meters
+    private boolean metrics = true;
+
+    private Map<String, Pool> pools = new LinkedHashMap<>();
+
+    public boolean isH2c() {
+        return h2c;
+    }
+
+    public void setH2c(boolean h2c) {
+        this.h2c = h2c;
+    }
+
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(boolean metrics) {
+        this.metrics = metrics;
+    }
+
+    public Map<String, Pool> getPools() {
+        return pools;
+    }
+
+    public void setPools(Map<String, Pool> pools) {
+        this.pools = pools;
+    }
+
+    public static class Pool {
+
+        private URI uri;
+
+        private int maxConnections = 200;
+
+        // Requests allowed to wait for a connection; beyond that they fail immediately
+        private int pendingAcquireMaxCount = 400;
+
+        private long pendingAcquireTimeoutMs = 1000;
+
+        // Below the backends' keep-alive timeout (Tomcat: 60s), so we never reuse a connection they are closing
+        private long maxIdleTimeMs = 30000;
+
+        private long maxLifeTimeMs = 300000;
+
+        private long evictionIntervalMs = 10000;
+
+        public URI getUri() {
+            return uri;
+        }
+
+        public void setUri(URI uri) {
+            this.uri = uri;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
+
+        public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+
+        public long getPendingAcquireTimeoutMs() {
+            return pendingAcquireTimeoutMs;
+        }
+
+        public void setPendingAcquireTimeoutMs(long pendingAcquireTimeoutMs) {
+            this.pendingAcquireTimeoutMs = pendingAcquireTimeoutMs;
+        }
+
+        public long getMaxIdleTimeMs() {
+            return maxIdleTimeMs;
+        }
+
+        public void setMaxIdleTimeMs(long maxIdleTimeMs) {
+            this.maxIdleTimeMs = maxIdleTimeMs;
+        }
+
+        public long getMaxLifeTimeMs() {
+            return maxLifeTimeMs;
+        }
+
+        public void setMaxLifeTimeMs(long maxLifeTimeMs) {
+            this.maxLifeTimeMs = maxLifeTimeMs;
+        }
+
+        public long getEvictionIntervalMs() {
+            return evictionIntervalMs;
+        }
+
+        public void setEvictionIntervalMs(long evictionIntervalMs) {
+            this.evictionIntervalMs = evictionIntervalMs;
+        }
+    }
+}
@@ -1,18 +0,0 @@
-package com.pcrypto.api_gateway.exception;
-
-import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.RestControllerAdvice;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
-import org.springframework.web.server.ServerWebExchange;
-import reactor.core.publisher.Mono;
-
-@RestControllerAdvice
-public class JwtValidationException {
-
-    @ExceptionHandler(WebClientResponseException.Unauthorized.class)
-    public Mono<Void> handleUnauthorizedException(ServerWebExchange exchange) {
-        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-        return exchange.getResponse().setComplete();
-    }
-}
@@ -0,0 +1,10 @@
+package com.pcrypto.api_gateway.exception;
+
+import io.jsonwebtoken.JwtException;
+
+public class UnknownSigningKeyException extends JwtException {
+
+    public UnknownSigningKeyException(String keyId) {
+        super("No signing key with id " + keyId);
+    }
+}
@@ -0,0 +1,209 @@
+package com.pcrypto.api_gateway.filter;
+
+import com.pcrypto.api_gateway.concurrency.GradientConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR;
+
+@Component
+public class AdaptiveConcurrencyLimitGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyLimitGatewayFilterFactory.Config> {
+
+    private final MeterRegistry meterRegistry;
+    // Latest limiter per route; gauges read through this so a route refresh does not leave them on a stale limiter
+    private final Map<String, GradientConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimitGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(config.getInitialLimit(),
+                config.getMinLimit(), config.getMaxLimit(), config.getBuffer(), config.getBackoffRatio(),
+                config.getSampleWindowMs(), config.getMinRttIntervalMs(), config.getProbeRequests());
+
+        String route = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        limiters.put(route, limiter);
+        Gauge.builder("gateway.concurrency.limit", limiters, current -> current.get(route).getLimit())
+                .description("Current adaptive in-flight request limit")
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limiters, current -> current.get(route).getInFlight())
+                .description("Requests currently in flight to the backend")
+                .tag("route", route)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("gateway.concurrency.rejected")
+                .description("Requests rejected because the route was at its concurrency limit")
+                .tag("route", route)
+                .register(meterRegistry);
+
+        List<PathPattern> excludedPaths = config.getExcludedPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+
+        return (exchange, chain) -> {
+            // Long-lived responses (streams) would hold a permit for minutes and feed the gradient a huge RTT
+            if (!excludedPaths.isEmpty() && isExcluded(exchange, excludedPaths)) {
+                return chain.filter(exchange);
+            }
+            if (!limiter.tryAcquire()) {
+                rejected.increment();
+                exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return exchange.getResponse().setComplete();
+            }
+
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .doFinally(signal -> {
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        if (signal == SignalType.CANCEL) {
+                            limiter.onIgnored();
+                        } else if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+                            limiter.onDropped();
+                        } else {
+                            limiter.onSuccess(System.nanoTime() - start);
+                        }
+                    });
+        };
+    }
+
+    private static boolean isExcluded(ServerWebExchange exchange, List<PathPattern> excludedPaths) {
+        // Matched against the path the client sent, before StripPrefix and friends rewrote it
+        Set<URI> originalUrls = exchange.getAttribute(GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        String path = originalUrls != null && !originalUrls.isEmpty()
+                ? originalUrls.iterator().next().getRawPath()
+                : exchange.getRequest().getPath().value();
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        return excludedPaths.stream().anyMatch(pattern -> pattern.matches(pathContainer));
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        private int initialLimit = 50;
+
+        private int minLimit = 10;
+
+        private int maxLimit = 1000;
+
+        private double buffer = 0.25;
+
+        private double backoffRatio = 0.9;
+
+        private long sampleWindowMs = 100;
+
+        private long minRttIntervalMs = 30000;
+
+        private int probeRequests = 25;
+
+        // Client path patterns that bypass the limiter, e.g. streaming endpoints
+        private List<String> excludedPaths = new ArrayList<>();
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getBuffer() {
+            return buffer;
+        }
+
+        public void setBuffer(double buffer) {
+            this.buffer = buffer;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public long getSampleWindowMs() {
+            return sampleWindowMs;
+        }
+
+        public void setSampleWindowMs(long sampleWindowMs) {
+            this.sampleWindowMs = sampleWindowMs;
+        }
+
+        public long getMinRttIntervalMs() {
+            return minRttIntervalMs;
+        }
+
+        public void setMinRttIntervalMs(long minRttIntervalMs) {
+            this.minRttIntervalMs = minRttIntervalMs;
+        }
+
+        public int getProbeRequests() {
+            return probeRequests;
+        }
+
+        public void setProbeRequests(int probeRequests) {
+            this.probeRequests = probeRequests;
+        }
+
+        public List<String> getExcludedPaths() {
+            return excludedPaths;
+        }
+
+        public void setExcludedPaths(List<String> excludedPaths) {
+            this.excludedPaths = excludedPaths;
+        }
+    }
+}
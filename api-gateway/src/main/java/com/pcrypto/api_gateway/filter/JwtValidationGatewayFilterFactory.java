@@ -1,20 +1,24 @@
 package com.pcrypto.api_gateway.filter;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.pcrypto.api_gateway.jwt.JwtTokenVerifier;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
 
 @Component
 public class JwtValidationGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
 
-    private final WebClient webClient;
+    // Verified token subject, for filters later in the chain (e.g. the rate limiter key)
+    public static final String SUBJECT_ATTRIBUTE = JwtValidationGatewayFilterFactory.class.getName() + ".subject";
 
-    public JwtValidationGatewayFilterFactory(WebClient.Builder webClientBuilder, @Value("${auth.service.url}") String authServiceUrl) {
-        this.webClient = webClientBuilder.baseUrl(authServiceUrl).build();
+    private final JwtTokenVerifier tokenVerifier;
+
+    public JwtValidationGatewayFilterFactory(JwtTokenVerifier tokenVerifier) {
+        this.tokenVerifier = tokenVerifier;
     }
 
     @Override
@@ -23,16 +27,24 @@ public class JwtValidationGatewayFilterFactory extends AbstractGatewayFilterFact
             String token = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
 
             if (token == null || !token.startsWith("Bearer ")) {
-                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-                return exchange.getResponse().setComplete();
+                return unauthorized(exchange);
             }
 
-            return webClient.get()
-                    .uri("/validate")
-                    .header(HttpHeaders.AUTHORIZATION, token)
-                    .retrieve()
-                    .toBodilessEntity()
-                    .then(chain.filter(exchange));
+            return tokenVerifier.verify(token.substring(7))
+                    .flatMap(verification -> {
+                        if (!verification.valid()) {
+                            return unauthorized(exchange);
+                        }
+                        if (verification.subject() != null) {
+                            exchange.getAttributes().put(SUBJECT_ATTRIBUTE, verification.subject());
+                        }
+                        return chain.filter(exchange);
+                    });
         };
     }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+    }
 }
@@ -0,0 +1,273 @@
+package com.pcrypto.api_gateway.filter;
+
+import com.pcrypto.api_gateway.cache.CachedResponse;
+import com.pcrypto.api_gateway.cache.ResponseCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches {@code GET} responses per verified JWT subject (so it must run after {@code JwtValidation}), following the
+ * backend's {@code Cache-Control} and {@code ETag}. Fresh entries are served without calling the backend; stale ones
+ * are revalidated with {@code If-None-Match}, so an unchanged patient costs a {@code 304} instead of a full response.
+ * Any other method on a path drops that path's entries for every principal, on this gateway instance only.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final String HIT = "HIT";
+    private static final String MISS = "MISS";
+    private static final String REVALIDATED = "REVALIDATED";
+
+    private final MeterRegistry meterRegistry;
+    // Latest cache per route; gauges read through this so a route refresh does not leave them on a stale cache
+    private final Map<String, ResponseCache> caches = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        ResponseCache cache = new ResponseCache(config.getTtlMs(), config.getMaxSizeBytes(), config.getMaxEntryBytes());
+
+        String route = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        caches.put(route, cache);
+        Gauge.builder("gateway.response-cache.size", caches, current -> current.get(route).size())
+                .description("Cached paths")
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("gateway.response-cache.bytes", caches, current -> current.get(route).weightedSize())
+                .description("Approximate size of the cached responses")
+                .baseUnit("bytes")
+                .tag("route", route)
+                .register(meterRegistry);
+        Map<String, Counter> results = Map.of(
+                HIT, resultCounter(route, HIT),
+                MISS, resultCounter(route, MISS),
+                REVALIDATED, resultCounter(route, REVALIDATED));
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String path = request.getPath().value();
+
+            if (HttpMethod.HEAD.equals(request.getMethod()) || HttpMethod.OPTIONS.equals(request.getMethod())) {
+                return chain.filter(exchange);
+            }
+            if (!HttpMethod.GET.equals(request.getMethod())) {
+                // Drop before (no stale reads while the write is in flight) and after (no re-cached old copy)
+                cache.invalidate(path);
+                return chain.filter(exchange).doFinally(signal -> cache.invalidate(path));
+            }
+
+            String subject = exchange.getAttribute(JwtValidationGatewayFilterFactory.SUBJECT_ATTRIBUTE);
+            if (subject == null) {
+                return chain.filter(exchange);
+            }
+            String variant = subject + "?" + (request.getURI().getRawQuery() != null ? request.getURI().getRawQuery() : "");
+            String clientIfNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            long now = System.currentTimeMillis();
+            long startNanos = System.nanoTime();
+
+            CachedResponse cached = noCacheRequested(request) ? null : cache.get(path, variant);
+            if (cached != null && cached.isFresh(now)) {
+                results.get(HIT).increment();
+                return writeCached(exchange.getResponse(), cached, clientIfNoneMatch, HIT, now);
+            }
+
+            CachedResponse stale = cached != null && cached.eTag() != null ? cached : null;
+            ServerWebExchange forwarded = exchange;
+            if (stale != null) {
+                forwarded = exchange.mutate()
+                        .request(request.mutate().headers(headers -> headers.set(HttpHeaders.IF_NONE_MATCH, stale.eTag())).build())
+                        .build();
+            }
+            CachingResponse response = new CachingResponse(exchange.getResponse(), cache, path, variant, startNanos,
+                    stale, clientIfNoneMatch, results);
+            return chain.filter(forwarded.mutate().response(response).build());
+        };
+    }
+
+    private Counter resultCounter(String route, String result) {
+        return Counter.builder("gateway.response-cache.requests")
+                .description("Cacheable GET requests by outcome")
+                .tag("route", route)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static boolean noCacheRequested(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private static Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached, String clientIfNoneMatch,
+                                          String cacheStatus, long now) {
+        HttpHeaders headers = response.getHeaders();
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        // A revalidating 304 has already copied its own ETag, Cache-Control and Content-Length in - replace, not append
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.putAll(cached.headers());
+        headers.set(HttpHeaders.AGE, String.valueOf(Math.max(0, (now - cached.storedAtMs()) / 1000)));
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+
+        if (cached.eTag() != null && cached.eTag().equals(clientIfNoneMatch)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Stores cacheable {@code 200} responses on their way to the client and turns a {@code 304} for a revalidated
+     * entry back into the cached {@code 200} when the client did not have that version itself.
+     */
+    private static class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ResponseCache cache;
+        private final String path;
+        private final String variant;
+        private final long startNanos;
+        private final CachedResponse stale;
+        private final String clientIfNoneMatch;
+        private final Map<String, Counter> results;
+
+        CachingResponse(ServerHttpResponse delegate, ResponseCache cache, String path, String variant, long startNanos,
+                        CachedResponse stale, String clientIfNoneMatch, Map<String, Counter> results) {
+            super(delegate);
+            this.cache = cache;
+            this.path = path;
+            this.variant = variant;
+            this.startNanos = startNanos;
+            this.stale = stale;
+            this.clientIfNoneMatch = clientIfNoneMatch;
+            this.results = results;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            long now = System.currentTimeMillis();
+            long freshnessMs = cache.freshnessMs(getHeaders());
+
+            if (stale != null && HttpStatus.NOT_MODIFIED.equals(status)) {
+                results.get(REVALIDATED).increment();
+                CachedResponse revalidated = stale.revalidated(now, now + Math.max(freshnessMs, 0));
+                if (freshnessMs > 0) {
+                    cache.put(path, variant, revalidated, startNanos);
+                }
+                return Flux.from(body).doOnNext(DataBufferUtils::release)
+                        .then(writeCached(getDelegate(), revalidated, clientIfNoneMatch, REVALIDATED, now));
+            }
+
+            results.get(MISS).increment();
+            long contentLength = getHeaders().getContentLength();
+            if (!HttpStatus.OK.equals(status) || freshnessMs <= 0 || contentLength > cache.maxEntryBytes()) {
+                return super.writeWith(body);
+            }
+
+            getHeaders().set(CACHE_STATUS_HEADER, MISS);
+            return Flux.<DataBuffer>from(body).collectList().flatMap(buffers -> {
+                int size = buffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+                if (size <= cache.maxEntryBytes()) {
+                    cache.put(path, variant, toCachedResponse(buffers, size, now, freshnessMs), startNanos);
+                }
+                return super.writeWith(Flux.fromIterable(buffers));
+            });
+        }
+
+        private CachedResponse toCachedResponse(List<DataBuffer> buffers, int size, long now, long freshnessMs) {
+            byte[] bytes = new byte[size];
+            int offset = 0;
+            for (DataBuffer buffer : buffers) {
+                int readable = buffer.readableByteCount();
+                buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), offset, readable);
+                offset += readable;
+            }
+
+            HttpHeaders replayed = new HttpHeaders();
+            for (String name : ResponseCache.REPLAYED_HEADERS) {
+                List<String> values = getHeaders().get(name);
+                if (values != null) {
+                    replayed.put(name, List.copyOf(values));
+                }
+            }
+            return new CachedResponse(replayed, bytes, getHeaders().getETag(), now, now + freshnessMs);
+        }
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        // Upper bound on freshness; the backend's max-age applies when it is shorter
+        private long ttlMs = 30000;
+
+        private long maxSizeBytes = 16 * 1024 * 1024;
+
+        private int maxEntryBytes = 256 * 1024;
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public long getTtlMs() {
+            return ttlMs;
+        }
+
+        public void setTtlMs(long ttlMs) {
+            this.ttlMs = ttlMs;
+        }
+
+        public long getMaxSizeBytes() {
+            return maxSizeBytes;
+        }
+
+        public void setMaxSizeBytes(long maxSizeBytes) {
+            this.maxSizeBytes = maxSizeBytes;
+        }
+
+        public int getMaxEntryBytes() {
+            return maxEntryBytes;
+        }
+
+        public void setMaxEntryBytes(int maxEntryBytes) {
+            this.maxEntryBytes = maxEntryBytes;
+        }
+    }
+}
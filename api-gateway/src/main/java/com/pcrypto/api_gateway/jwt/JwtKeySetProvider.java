@@ -0,0 +1,129 @@
+package com.pcrypto.api_gateway.jwt;
+
+import com.pcrypto.api_gateway.exception.UnknownSigningKeyException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps auth-service's published verification keys in memory. Keys are refreshed in the background and, throttled,
+ * whenever a token names a key we have not seen yet (auth-service just rotated), so lookups never leave the process.
+ */
+@Component
+public class JwtKeySetProvider extends LocatorAdapter<Key> {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeySetProvider.class);
+
+    private final WebClient webClient;
+    private final long minRefreshIntervalMs;
+    private final Duration fetchTimeout;
+    // Only set when auth-service signs with HS256 (jwt.algorithm) - a shared secret is never published
+    private final Key hmacKey;
+
+    private volatile Map<String, Key> keys = Map.of();
+    private final AtomicLong lastRefreshAt = new AtomicLong();
+    private final AtomicReference<Mono<Void>> inFlightRefresh = new AtomicReference<>();
+
+    public JwtKeySetProvider(WebClient.Builder webClientBuilder,
+                             HttpClient gatewayHttpClient,
+                             @Value("${auth.service.url}") String authServiceUrl,
+                             @Value("${auth.jwks.min-refresh-interval-ms:5000}") long minRefreshIntervalMs,
+                             @Value("${auth.jwks.fetch-timeout-ms:2000}") long fetchTimeoutMs,
+                             @Value("${auth.jwt.secret:}") String hmacSecret) {
+        // Same client as the routes, so key fetches use the auth-service connection pool
+        this.webClient = webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(gatewayHttpClient))
+                .baseUrl(authServiceUrl)
+                .build();
+        this.minRefreshIntervalMs = minRefreshIntervalMs;
+        this.fetchTimeout = Duration.ofMillis(fetchTimeoutMs);
+        this.hmacKey = hmacSecret.isBlank()
+                ? null
+                : Keys.hmacShaKeyFor(Base64.getDecoder().decode(hmacSecret.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        if ("HS256".equals(header.getAlgorithm())) {
+            if (hmacKey == null) {
+                throw new JwtException("HS256 tokens require auth.jwt.secret");
+            }
+            return hmacKey;
+        }
+        Key key = keys.get(header.getKeyId());
+        if (key == null) {
+            throw new UnknownSigningKeyException(header.getKeyId());
+        }
+        return key;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${auth.jwks.refresh-interval-ms:300000}",
+            fixedDelayString = "${auth.jwks.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        refresh().subscribe();
+    }
+
+    /**
+     * Fetches the key set unless a fetch is already running (callers share it) or one finished less than
+     * {@code auth.jwks.min-refresh-interval-ms} ago. Never fails - on error the current keys stay in place.
+     */
+    public Mono<Void> refresh() {
+        Mono<Void> running = inFlightRefresh.get();
+        if (running != null) {
+            return running;
+        }
+        if (System.currentTimeMillis() - lastRefreshAt.get() < minRefreshIntervalMs) {
+            return Mono.empty();
+        }
+
+        Mono<Void> fetch = webClient.get()
+                .uri("/.well-known/jwks.json")
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(fetchTimeout)
+                .doOnNext(this::updateKeys)
+                .doOnError(e -> log.warn("Could not refresh JWT signing keys, keeping {} cached key(s): {}",
+                        keys.size(), e.getMessage()))
+                .onErrorComplete()
+                .doFinally(signal -> {
+                    lastRefreshAt.set(System.currentTimeMillis());
+                    inFlightRefresh.set(null);
+                })
+                .then()
+                .cache();
+
+        return inFlightRefresh.compareAndSet(null, fetch) ? fetch : refresh();
+    }
+
+    private void updateKeys(String jwks) {
+        Map<String, Key> refreshed = Jwks.setParser().build().parse(jwks).getKeys().stream()
+                .filter(jwk -> jwk.getId() != null)
+                .collect(Collectors.toUnmodifiableMap(Jwk::getId, Jwk::toKey));
+        keys = refreshed;
+        log.info("Refreshed JWT signing keys: [Keys={}]", refreshed.keySet());
+    }
+}
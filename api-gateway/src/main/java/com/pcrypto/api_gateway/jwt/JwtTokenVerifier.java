@@ -0,0 +1,98 @@
+package com.pcrypto.api_gateway.jwt;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.pcrypto.api_gateway.exception.UnknownSigningKeyException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Verifies bearer tokens against auth-service's key set and remembers the outcome. Results are keyed by a SHA-256
+ * of the token and never outlive the token's {@code exp}; concurrent checks of the same token share one verification.
+ */
+@Component
+public class JwtTokenVerifier {
+
+    public static final String TOKEN_CACHE = "jwt-validation";
+
+    public record Verification(boolean valid, String subject, long expiresAtMs) {
+
+        private static final Verification INVALID = new Verification(false, null, 0);
+    }
+
+    private final JwtKeySetProvider keySetProvider;
+    private final JwtParser jwtParser;
+    private final AsyncCache<String, Verification> verifications;
+
+    public JwtTokenVerifier(JwtKeySetProvider keySetProvider,
+                            MeterRegistry meterRegistry,
+                            @Value("${auth.token-cache.max-size:100000}") long maxSize,
+                            @Value("${auth.token-cache.max-ttl-ms:300000}") long maxTtlMs,
+                            @Value("${auth.token-cache.negative-ttl-ms:10000}") long negativeTtlMs) {
+        this.keySetProvider = keySetProvider;
+        this.jwtParser = Jwts.parser().keyLocator(keySetProvider).build();
+        this.verifications = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<String, Verification>creating((token, verification) -> {
+                    if (!verification.valid()) {
+                        return Duration.ofMillis(negativeTtlMs);
+                    }
+                    long untilExpiry = verification.expiresAtMs() - System.currentTimeMillis();
+                    return Duration.ofMillis(Math.max(0, Math.min(untilExpiry, maxTtlMs)));
+                }))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifications, TOKEN_CACHE, List.of());
+    }
+
+    public Mono<Verification> verify(String jwt) {
+        return Mono.fromFuture(() -> verifications.get(hash(jwt), (key, executor) -> verifySignature(jwt).toFuture()))
+                // A failed load is not cached, so the next request retries once the key set has caught up
+                .onErrorReturn(UnknownSigningKeyException.class, Verification.INVALID);
+    }
+
+    private Mono<Verification> verifySignature(String jwt) {
+        // Only a key we have not seen yet (auth-service rotated) costs a key set fetch. The refresh may have been
+        // throttled, so a kid still unknown afterwards fails the load instead of caching INVALID for negative-ttl-ms
+        return Mono.fromCallable(() -> parse(jwt))
+                .onErrorResume(UnknownSigningKeyException.class, e -> keySetProvider.refresh()
+                        .then(Mono.fromCallable(() -> parse(jwt))));
+    }
+
+    private Verification parse(String jwt) {
+        try {
+            Claims claims = jwtParser.parseSignedClaims(jwt).getPayload();
+            Date expiration = claims.getExpiration();
+            return new Verification(true, claims.getSubject(), expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+        } catch (UnknownSigningKeyException e) {
+            throw e;
+        } catch (JwtException | IllegalArgumentException e) {
+            return Verification.INVALID;
+        }
+    }
+
+    private static String hash(String jwt) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jwt.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.pcrypto.api_gateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token-bucket rate limiter for the {@code RequestRateLimiter} filter that keeps all state in memory.
+ * <p>
+ * Every rate-limited route owns a fixed array of {@code gateway.rate-limiter.stripes} buckets and each key is hashed
+ * onto one of them, so memory stays bounded no matter how many clients show up (keys that collide share a bucket).
+ * A bucket is a single {@code long} - the GCRA "theoretical arrival time", which behaves exactly like a token bucket
+ * refilled at {@code replenishRate} up to {@code burstCapacity} - and is updated with one compare-and-set, no locks.
+ */
+@Primary
+@Component
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int stripes;
+    // Bucket value 0 means "never used", so the clock starts at 1
+    private final long originNanos = System.nanoTime() - 1;
+    private final Map<String, AtomicLongArray> bucketsByRoute = new ConcurrentHashMap<>();
+
+    public InMemoryRateLimiter(ConfigurationService configurationService,
+                               @Value("${gateway.rate-limiter.stripes:1048576}") int stripes) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.stripes = Integer.highestOneBit(Math.max(stripes, 1));
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().get(routeId);
+        if (config == null) {
+            throw new IllegalArgumentException("No Configuration found for route " + routeId);
+        }
+        if (config.getReplenishRate() < 1 || config.getBurstCapacity() < config.getRequestedTokens()) {
+            throw new IllegalArgumentException("Invalid " + CONFIGURATION_PROPERTY_NAME + " configuration for route " + routeId);
+        }
+
+        AtomicLongArray buckets = bucketsByRoute.computeIfAbsent(routeId, route -> new AtomicLongArray(stripes));
+        int stripe = stripe(id);
+
+        long interval = NANOS_PER_SECOND / config.getReplenishRate();
+        long burstOffset = interval * config.getBurstCapacity();
+        long increment = interval * config.getRequestedTokens();
+        long now = System.nanoTime() - originNanos;
+
+        while (true) {
+            long arrival = buckets.get(stripe);
+            long newArrival = Math.max(arrival, now) + increment;
+            long allowAt = newArrival - burstOffset;
+
+            if (allowAt > now) {
+                return Mono.just(new Response(false, headers(config, 0, arrival - now, allowAt - now)));
+            }
+            if (buckets.compareAndSet(stripe, arrival, newArrival)) {
+                long remaining = (burstOffset - (newArrival - now)) / interval;
+                return Mono.just(new Response(true, headers(config, remaining, newArrival - now, 0)));
+            }
+        }
+    }
+
+    private int stripe(String id) {
+        int hash = id.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (stripes - 1);
+    }
+
+    private Map<String, String> headers(Config config, long remaining, long nanosUntilFull, long retryAfterNanos) {
+        if (!config.isIncludeHeaders()) {
+            return Map.of();
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(LIMIT_HEADER, String.valueOf(config.getBurstCapacity()));
+        headers.put(REMAINING_HEADER, String.valueOf(remaining));
+        headers.put(RESET_HEADER, String.valueOf(toSeconds(nanosUntilFull)));
+        if (retryAfterNanos > 0) {
+            headers.put(HttpHeaders.RETRY_AFTER, String.valueOf(toSeconds(retryAfterNanos)));
+        }
+        return headers;
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(0, (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+
+    public static class Config {
+
+        private int replenishRate;
+
+        private int burstCapacity = 1;
+
+        private int requestedTokens = 1;
+
+        private boolean includeHeaders = true;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+
+        public boolean isIncludeHeaders() {
+            return includeHeaders;
+        }
+
+        public Config setIncludeHeaders(boolean includeHeaders) {
+            this.includeHeaders = includeHeaders;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.pcrypto.api_gateway.ratelimit;
+
+import com.pcrypto.api_gateway.filter.JwtValidationGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Rate-limit key: the verified JWT subject when {@code JwtValidation} ran earlier in the route, otherwise the
+ * client IP (e.g. for {@code /auth/login}).
+ */
+@Component
+public class PrincipalOrIpKeyResolver implements KeyResolver {
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        String subject = exchange.getAttribute(JwtValidationGatewayFilterFactory.SUBJECT_ATTRIBUTE);
+        if (subject != null) {
+            return Mono.just("sub:" + subject);
+        }
+
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return Mono.empty();
+        }
+        return Mono.just("ip:" + remoteAddress.getAddress().getHostAddress());
+    }
+}
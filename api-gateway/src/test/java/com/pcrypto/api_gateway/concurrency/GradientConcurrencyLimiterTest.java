@@ -0,0 +1,107 @@
+package com.pcrypto.api_gateway.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void pinsLimitToMinimumUntilProbeHasEnoughSamples() throws InterruptedException {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 10, 1000, 0.25, 0.9,
+                10_000, 60_000, 5);
+        // Samples only count once their RTT fits after the probe started
+        Thread.sleep(2);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        for (int i = 0; i < 4; i++) {
+            limiter.onSuccess(RTT);
+        }
+        assertEquals(10, limiter.getLimit());
+
+        limiter.onSuccess(RTT);
+        assertEquals(50, limiter.getLimit());
+    }
+
+    @Test
+    void raisesLimitWhileLatencyStaysAtMinRttUnderLoad() throws InterruptedException {
+        GradientConcurrencyLimiter limiter = probed();
+
+        // More than half the limit in flight, so the route is actually using its limit
+        for (int i = 0; i < 30; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        limiter.onSuccess(RTT);
+
+        // 50 * 1.25 + sqrt(50)
+        assertEquals(69, limiter.getLimit());
+    }
+
+    @Test
+    void keepsLimitWhenItIsNotBeingUsed() throws InterruptedException {
+        GradientConcurrencyLimiter limiter = probed();
+
+        limiter.tryAcquire();
+        limiter.onSuccess(RTT);
+
+        assertEquals(50, limiter.getLimit());
+    }
+
+    @Test
+    void lowersLimitWhenLatencyRises() throws InterruptedException {
+        GradientConcurrencyLimiter limiter = probed();
+
+        limiter.tryAcquire();
+        limiter.onSuccess(RTT * 4);
+
+        // Gradient clamped to 0.5: 50 * 0.5 + sqrt(50)
+        assertEquals(32, limiter.getLimit());
+    }
+
+    @Test
+    void backsOffOnFailure() throws InterruptedException {
+        GradientConcurrencyLimiter limiter = probed();
+
+        limiter.tryAcquire();
+        limiter.onDropped();
+
+        assertEquals(45, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void neverDropsBelowMinimum() throws InterruptedException {
+        GradientConcurrencyLimiter limiter = probed();
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    /**
+     * A limiter at 50 that has finished its first probe with a minRTT of {@link #RTT}. A zero sample window evaluates
+     * the gradient on every response and also ends the probe on its first sample.
+     */
+    private static GradientConcurrencyLimiter probed() throws InterruptedException {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 10, 1000, 0.25, 0.9,
+                0, 60_000, 5);
+        Thread.sleep(2);
+        limiter.tryAcquire();
+        limiter.onSuccess(RTT);
+        assertEquals(50, limiter.getLimit());
+        return limiter;
+    }
+}
@@ -0,0 +1,78 @@
+package com.pcrypto.api_gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter.Response;
+import org.springframework.http.HttpHeaders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryRateLimiterTest {
+
+    private static final String ROUTE = "route";
+
+    private final InMemoryRateLimiter rateLimiter = new InMemoryRateLimiter(null, 1 << 16);
+
+    @Test
+    void allowsBurstThenRejects() {
+        configure(1, 5);
+
+        for (int remaining = 4; remaining >= 0; remaining--) {
+            Response response = isAllowed("client");
+            assertTrue(response.isAllowed());
+            assertEquals(String.valueOf(remaining), response.getHeaders().get(InMemoryRateLimiter.REMAINING_HEADER));
+        }
+
+        Response rejected = isAllowed("client");
+        assertFalse(rejected.isAllowed());
+        assertEquals("0", rejected.getHeaders().get(InMemoryRateLimiter.REMAINING_HEADER));
+        assertEquals("1", rejected.getHeaders().get(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void refillsAtReplenishRate() throws InterruptedException {
+        // One token per millisecond
+        configure(1_000, 2);
+
+        assertTrue(isAllowed("client").isAllowed());
+        assertTrue(isAllowed("client").isAllowed());
+        assertFalse(isAllowed("client").isAllowed());
+
+        Thread.sleep(5);
+        assertTrue(isAllowed("client").isAllowed());
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumeTokens() throws InterruptedException {
+        configure(1_000, 1);
+
+        assertTrue(isAllowed("client").isAllowed());
+        for (int i = 0; i < 100; i++) {
+            isAllowed("client");
+        }
+
+        // Had the rejections pushed the arrival time out, this would still be refused
+        Thread.sleep(5);
+        assertTrue(isAllowed("client").isAllowed());
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        configure(1, 1);
+
+        assertTrue(isAllowed("alice").isAllowed());
+        assertFalse(isAllowed("alice").isAllowed());
+        assertTrue(isAllowed("bob").isAllowed());
+    }
+
+    private void configure(int replenishRate, int burstCapacity) {
+        rateLimiter.getConfig().put(ROUTE, new InMemoryRateLimiter.Config()
+                .setReplenishRate(replenishRate)
+                .setBurstCapacity(burstCapacity));
+    }
+
+    private Response isAllowed(String id) {
+        return rateLimiter.isAllowed(ROUTE, id).block();
+    }
+}
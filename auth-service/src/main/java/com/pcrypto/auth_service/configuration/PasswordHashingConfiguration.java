@@ -0,0 +1,43 @@
+package com.pcrypto.auth_service.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class PasswordHashingConfiguration {
+
+    public static final String PASSWORD_HASH_EXECUTOR = "passwordHashExecutor";
+
+    // BCrypt is CPU-bound: a fixed pool no larger than the core count, and a bounded queue that rejects
+    // (AbortPolicy) once a login burst has filled it, instead of letting logins pile up on request threads
+    @Bean(name = PASSWORD_HASH_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService passwordHashExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${auth.password-hash.threads:0}") int threads,
+            @Value("${auth.password-hash.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // executor.queued / executor.queue.remaining / executor.active tagged name=password-hash
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hash", List.of());
+    }
+}
@@ -5,6 +5,7 @@ import com.pcrypto.auth_service.dto.LoginResponseDTO;
 import com.pcrypto.auth_service.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,7 +14,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequiredArgsConstructor
@@ -23,17 +26,12 @@ public class AuthController {
 
     @Operation(summary = "Generate token on user login")
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDTO> login(@RequestBody LoginRequestDTO loginRequestDTO) {
-
-        Optional<String> tokenOptional = authService.authenticate(loginRequestDTO);
-
-        if(tokenOptional.isEmpty()){
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-
-        String token = tokenOptional.get();
-        return ResponseEntity.ok(new LoginResponseDTO(token));
+    public CompletableFuture<ResponseEntity<LoginResponseDTO>> login(@RequestBody LoginRequestDTO loginRequestDTO) {
 
+        return authService.authenticate(loginRequestDTO)
+                .thenApply(tokenOptional -> tokenOptional
+                        .map(token -> ResponseEntity.ok(new LoginResponseDTO(token)))
+                        .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build()));
     }
 
     @Operation(summary = "Validate token")
@@ -50,4 +48,12 @@ public class AuthController {
                 : ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
 
     }
+
+    @Operation(summary = "Public keys for verifying tokens locally")
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getPublicKeySet() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES))
+                .body(authService.getPublicKeySet());
+    }
 }
@@ -0,0 +1,14 @@
+package com.pcrypto.auth_service.exception;
+
+import lombok.Getter;
+
+@Getter
+public class LoginCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginCapacityExceededException(long retryAfterSeconds) {
+        super("Too many concurrent logins, retry after " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,42 @@
+package com.pcrypto.auth_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Entity
+@Table(name = "jwt_signing_key")
+public class JwtSigningKey {
+
+    // JWK thumbprint of the public key, written to the kid header of every token it signs
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String algorithm;
+
+    // JCA key algorithm (RSA, EC, EdDSA) used to decode the encoded keys below
+    @Column(nullable = false)
+    private String keyAlgorithm;
+
+    // Base64 PKCS#8
+    @Column(nullable = false, length = 4096)
+    private String privateKey;
+
+    // Base64 X.509 SubjectPublicKeyInfo
+    @Column(nullable = false, length = 1024)
+    private String publicKey;
+
+    // Published as soon as it is stored, but only signs from this instant on
+    @Column(nullable = false)
+    private Instant activeFrom;
+
+    // Set when the next key takes over; the key stays published until its last token has expired
+    private Instant retiredAt;
+
+}
@@ -0,0 +1,21 @@
+package com.pcrypto.auth_service.repository;
+
+import com.pcrypto.auth_service.model.JwtSigningKey;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+
+    List<JwtSigningKey> findByAlgorithm(String algorithm);
+
+    // FOR UPDATE - instances rotating at the same time queue behind each other on the newest key
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<JwtSigningKey> findFirstByAlgorithmOrderByActiveFromDesc(String algorithm);
+
+    void deleteByAlgorithmAndRetiredAtBefore(String algorithm, Instant cutoff);
+}
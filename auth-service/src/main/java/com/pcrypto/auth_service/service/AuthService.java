@@ -2,28 +2,36 @@ package com.pcrypto.auth_service.service;
 
 import com.pcrypto.auth_service.dto.LoginRequestDTO;
 import com.pcrypto.auth_service.model.User;
+import com.pcrypto.auth_service.util.JwtKeyRing;
 import com.pcrypto.auth_service.util.JwtUtil;
 import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
     private final JwtUtil jwtUtil;
+    private final JwtKeyRing jwtKeyRing;
 
-    public Optional<String> authenticate(LoginRequestDTO loginRequestDTO){
-        Optional<String> token = userService.findByEmail(loginRequestDTO.getEmail())
-                .filter(u -> passwordEncoder.matches(loginRequestDTO.getPassword(), u.getPassword()))
-                .map(u -> jwtUtil.generateToken(u.getEmail(), u.getRole()));
+    public CompletableFuture<Optional<String>> authenticate(LoginRequestDTO loginRequestDTO){
+        Optional<User> user = userService.findByEmail(loginRequestDTO.getEmail());
+        if (user.isEmpty()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
 
-        return token;
+        User u = user.get();
+        return passwordVerifier.matches(loginRequestDTO.getPassword(), u.getPassword())
+                .thenApply(matches -> matches
+                        ? Optional.of(jwtUtil.generateToken(u.getEmail(), u.getRole()))
+                        : Optional.empty());
     }
 
     public boolean validateToken(String token){
@@ -34,4 +42,8 @@ public class AuthService {
             return false;
         }
     }
+
+    public Map<String, Object> getPublicKeySet() {
+        return jwtKeyRing.publicKeySet();
+    }
 }
@@ -0,0 +1,56 @@
+package com.pcrypto.auth_service.service;
+
+import com.pcrypto.auth_service.configuration.PasswordHashingConfiguration;
+import com.pcrypto.auth_service.exception.LoginCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs password checks on the bounded password-hash executor, so a login burst queues there - or is shed -
+ * instead of occupying the request threads that {@code /validate} also needs.
+ */
+@Service
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService passwordHashExecutor;
+    private final long retryAfterSeconds;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            @Qualifier(PasswordHashingConfiguration.PASSWORD_HASH_EXECUTOR) ExecutorService passwordHashExecutor,
+                            MeterRegistry meterRegistry,
+                            @Value("${auth.password-hash.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashExecutor = passwordHashExecutor;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.hashTimer = Timer.builder("auth.password.hash")
+                .description("Time spent verifying a password hash")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.hash.rejected")
+                .description("Password checks shed because the password-hash queue was full")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> hashTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)),
+                    passwordHashExecutor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new LoginCapacityExceededException(retryAfterSeconds);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.pcrypto.auth_service.util;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Signing keys for the configured {@code jwt.algorithm}. With an asymmetric algorithm (RS256, ES256, EdDSA) the
+ * ring holds the key set {@link JwtKeyStore} loads from the shared {@code jwt_signing_key} table: the newest key
+ * whose {@code activeFrom} has passed signs new tokens, and every key in the set - including the next key before it
+ * activates and retired keys until their tokens expire - is published. HS256 signs with the shared
+ * {@code jwt.secret}: nothing is published and the key is never rotated.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    public static final List<String> SUPPORTED_ALGORITHMS = List.of("HS256", "RS256", "ES256", "EdDSA");
+
+    private static final String HMAC_KEY_ID = "hs256";
+
+    public record SigningKey(String id, SecureDigestAlgorithm<?, ?> algorithm, Key signingKey, Key verificationKey,
+                             PublicJwk<?> publicJwk, Instant activeFrom) {
+    }
+
+    private final String algorithm;
+
+    private volatile SigningKey active;
+    private volatile List<SigningKey> keys = List.of();
+    private volatile Map<String, Object> publicKeySet = Map.of("keys", List.of());
+
+    public JwtKeyRing(@Value("${jwt.algorithm:RS256}") String algorithm,
+                      @Value("${jwt.secret:}") String secret) {
+        if (!SUPPORTED_ALGORITHMS.contains(algorithm)) {
+            throw new IllegalArgumentException("Unsupported jwt.algorithm " + algorithm + ", expected one of " + SUPPORTED_ALGORITHMS);
+        }
+        if (algorithm.equals("HS256") && secret.isBlank()) {
+            throw new IllegalArgumentException("jwt.algorithm=HS256 requires jwt.secret");
+        }
+        this.algorithm = algorithm;
+
+        if (isShared()) {
+            byte[] keyBytes = Base64.getDecoder().decode(secret.getBytes(StandardCharsets.UTF_8));
+            active = new SigningKey(HMAC_KEY_ID, Jwts.SIG.HS256, Keys.hmacShaKeyFor(keyBytes),
+                    Keys.hmacShaKeyFor(keyBytes), null, Instant.EPOCH);
+            keys = List.of(active);
+        }
+    }
+
+    public String algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * True for HS256 - a shared secret cannot be rotated without every verifier changing it at the same time.
+     */
+    public boolean isShared() {
+        return algorithm.equals("HS256");
+    }
+
+    /**
+     * Replaces the key set. The newest key already active at {@code now} signs; the rest are only published.
+     */
+    public synchronized void update(List<SigningKey> published, Instant now) {
+        SigningKey next = published.stream()
+                .filter(key -> !key.activeFrom().isAfter(now))
+                .max(Comparator.comparing(SigningKey::activeFrom))
+                // A clock behind the instance that stored the first key - sign with the earliest rather than none
+                .or(() -> published.stream().min(Comparator.comparing(SigningKey::activeFrom)))
+                .orElseThrow(() -> new IllegalStateException("No " + algorithm + " signing key is stored"));
+
+        keys = List.copyOf(published);
+        // Public JWK parameters are plain JSON values, so the set can be handed straight to Jackson
+        publicKeySet = Map.of("keys", keys.stream()
+                .map(key -> new LinkedHashMap<String, Object>(key.publicJwk()))
+                .toList());
+        if (active == null || !active.id().equals(next.id())) {
+            log.info("Activated JWT signing key: [Algorithm={}, Active={}, Published={}]", algorithm, next.id(), keys.size());
+        }
+        active = next;
+    }
+
+    public SigningKey activeKey() {
+        return active;
+    }
+
+    public Map<String, Object> publicKeySet() {
+        return publicKeySet;
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String keyId = header.getKeyId();
+        return keys.stream()
+                .filter(key -> key.id().equals(keyId))
+                .findFirst()
+                .map(SigningKey::verificationKey)
+                .orElse(null);
+    }
+
+    /**
+     * Generates a fresh key pair for the configured asymmetric algorithm.
+     */
+    public KeyPair newKeyPair() {
+        return signatureAlgorithm().keyPair().build();
+    }
+
+    /**
+     * Wraps a stored or freshly generated key pair; its id is the public key's JWK thumbprint.
+     */
+    public SigningKey signingKey(PrivateKey privateKey, PublicKey publicKey, Instant activeFrom) {
+        PublicJwk<?> publicJwk = Jwks.builder()
+                .key(publicKey)
+                .idFromThumbprint()
+                .publicKeyUse("sig")
+                .algorithm(algorithm)
+                .build();
+        return new SigningKey(publicJwk.getId(), signatureAlgorithm(), privateKey, publicKey, publicJwk, activeFrom);
+    }
+
+    private SignatureAlgorithm signatureAlgorithm() {
+        return (SignatureAlgorithm) Jwts.SIG.get().forKey(algorithm);
+    }
+}
@@ -0,0 +1,118 @@
+package com.pcrypto.auth_service.util;
+
+import com.pcrypto.auth_service.model.JwtSigningKey;
+import com.pcrypto.auth_service.repository.JwtSigningKeyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps {@link JwtKeyRing} in step with the shared {@code jwt_signing_key} table, so every auth-service instance
+ * signs with and publishes the same keys and a restart invalidates nothing. Every
+ * {@code jwt.keys.refresh-interval-ms} an instance reloads the table and, once the active key has served
+ * {@code jwt.keys.rotation-interval-ms}, stores the next one. A new key is published {@code jwt.keys.publish-ahead-ms}
+ * before it signs anything, so verifiers holding a cached key set already know it by the time its tokens arrive.
+ */
+@Slf4j
+@Component
+public class JwtKeyStore {
+
+    private final JwtSigningKeyRepository jwtSigningKeyRepository;
+    private final JwtKeyRing keyRing;
+    private final TransactionTemplate transactionTemplate;
+    private final long rotationIntervalMs;
+    private final long publishAheadMs;
+    private final long tokenExpirationMs;
+
+    public JwtKeyStore(JwtSigningKeyRepository jwtSigningKeyRepository,
+                       JwtKeyRing keyRing,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${jwt.keys.rotation-interval-ms:86400000}") long rotationIntervalMs,
+                       @Value("${jwt.keys.publish-ahead-ms:600000}") long publishAheadMs,
+                       @Value("${jwt.expiration-ms:36000000}") long tokenExpirationMs) {
+        if (publishAheadMs >= rotationIntervalMs) {
+            throw new IllegalArgumentException("jwt.keys.publish-ahead-ms must be below jwt.keys.rotation-interval-ms");
+        }
+        this.jwtSigningKeyRepository = jwtSigningKeyRepository;
+        this.keyRing = keyRing;
+        this.transactionTemplate = transactionTemplate;
+        this.rotationIntervalMs = rotationIntervalMs;
+        this.publishAheadMs = publishAheadMs;
+        this.tokenExpirationMs = tokenExpirationMs;
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${jwt.keys.refresh-interval-ms:60000}",
+            fixedDelayString = "${jwt.keys.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (keyRing.isShared()) {
+            return;
+        }
+
+        List<JwtSigningKey> stored = transactionTemplate.execute(status -> rotateIfDue(Instant.now()));
+        keyRing.update(stored.stream().map(this::decode).toList(), Instant.now());
+    }
+
+    private List<JwtSigningKey> rotateIfDue(Instant now) {
+        String algorithm = keyRing.algorithm();
+        Optional<JwtSigningKey> newest = jwtSigningKeyRepository.findFirstByAlgorithmOrderByActiveFromDesc(algorithm);
+
+        if (newest.isEmpty()) {
+            // Instances bootstrapping an empty table together may each store a key - all are published, so no harm
+            jwtSigningKeyRepository.save(newKey(now));
+        } else if (newest.get().getRetiredAt() == null
+                && !newest.get().getActiveFrom().plusMillis(rotationIntervalMs - publishAheadMs).isAfter(now)) {
+            // A retiredAt set here means another instance rotated while this one waited for the row lock
+            JwtSigningKey next = newKey(now.plusMillis(publishAheadMs));
+            newest.get().setRetiredAt(next.getActiveFrom());
+            jwtSigningKeyRepository.save(next);
+            log.info("Stored next JWT signing key: [Algorithm={}, Id={}, ActiveFrom={}]",
+                    algorithm, next.getId(), next.getActiveFrom());
+        }
+
+        jwtSigningKeyRepository.deleteByAlgorithmAndRetiredAtBefore(algorithm, now.minusMillis(tokenExpirationMs));
+        return jwtSigningKeyRepository.findByAlgorithm(algorithm);
+    }
+
+    private JwtSigningKey newKey(Instant activeFrom) {
+        KeyPair keyPair = keyRing.newKeyPair();
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey(keyPair.getPrivate(), keyPair.getPublic(), activeFrom);
+
+        JwtSigningKey stored = new JwtSigningKey();
+        stored.setId(signingKey.id());
+        stored.setAlgorithm(keyRing.algorithm());
+        stored.setKeyAlgorithm(keyPair.getPrivate().getAlgorithm());
+        stored.setPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        stored.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        stored.setActiveFrom(activeFrom);
+        return stored;
+    }
+
+    private JwtKeyRing.SigningKey decode(JwtSigningKey stored) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(stored.getKeyAlgorithm());
+            PrivateKey privateKey = keyFactory.generatePrivate(
+                    new PKCS8EncodedKeySpec(Base64.getDecoder().decode(stored.getPrivateKey())));
+            PublicKey publicKey = keyFactory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(stored.getPublicKey())));
+            return keyRing.signingKey(privateKey, publicKey, stored.getActiveFrom());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decode JWT signing key " + stored.getId(), e);
+        }
+    }
+}
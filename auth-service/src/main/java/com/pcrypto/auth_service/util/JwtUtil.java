@@ -1,48 +1,94 @@
 package com.pcrypto.auth_service.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
 import io.jsonwebtoken.security.SignatureException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Date;
 
 @Component
 public class JwtUtil {
 
-    private final Key secretKey;
+    private final JwtKeyRing keyRing;
+    private final long expirationMs;
+    // Thread-safe and immutable - built once instead of on every validation
+    private final JwtParser jwtParser;
+    // SHA-256 of a verified token -> its expiry; null unless jwt.validation-cache.enabled=true
+    private final Cache<String, Long> verifiedTokens;
 
-    public JwtUtil(@Value("${jwt.secret}") String secret) {
-        byte[] keyBytes = Base64.getDecoder()
-                .decode(secret.getBytes(StandardCharsets.UTF_8));
-        this.secretKey = Keys.hmacShaKeyFor(keyBytes);
+    public JwtUtil(JwtKeyRing keyRing,
+                   @Value("${jwt.expiration-ms:36000000}") long expirationMs,
+                   @Value("${jwt.validation-cache.enabled:false}") boolean validationCacheEnabled,
+                   @Value("${jwt.validation-cache.max-size:10000}") long validationCacheMaxSize,
+                   @Value("${jwt.validation-cache.ttl-ms:30000}") long validationCacheTtlMs) {
+        this.keyRing = keyRing;
+        this.expirationMs = expirationMs;
+        this.jwtParser = Jwts.parser().keyLocator(keyRing).build();
+        this.verifiedTokens = validationCacheEnabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(validationCacheMaxSize)
+                        .expireAfter(Expiry.<String, Long>creating((token, expiresAtMs) -> Duration.ofMillis(
+                                Math.max(0, Math.min(expiresAtMs - System.currentTimeMillis(), validationCacheTtlMs)))))
+                        .build()
+                : null;
     }
 
+    @SuppressWarnings("unchecked")
     public String generateToken(String email, String role) {
+        JwtKeyRing.SigningKey signingKey = keyRing.activeKey();
         return Jwts.builder()
+                .header().keyId(signingKey.id()).and()
                 .subject(email)
                 .claim("role", role)
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
-                .signWith(secretKey)
+                .expiration(new Date(System.currentTimeMillis() + expirationMs))
+                .signWith(signingKey.signingKey(), (SecureDigestAlgorithm<Key, ?>) signingKey.algorithm())
                 .compact();
     }
 
     public void validateToken(String token) {
+        if (verifiedTokens == null) {
+            verify(token);
+            return;
+        }
+
+        String key = hash(token);
+        Long expiresAtMs = verifiedTokens.getIfPresent(key);
+        if (expiresAtMs == null || expiresAtMs <= System.currentTimeMillis()) {
+            verifiedTokens.put(key, verify(token));
+        }
+    }
+
+    private long verify(String token) {
         try {
-            Jwts.parser().verifyWith((SecretKey) secretKey)
-                    .build()
-                    .parseSignedClaims(token);
+            Date expiration = jwtParser.parseSignedClaims(token).getPayload().getExpiration();
+            return expiration != null ? expiration.getTime() : Long.MAX_VALUE;
         } catch (SignatureException e) {
             throw new JwtException("Invalid JWT Signature");
-        } catch (JwtException e) {
+        } catch (JwtException | IllegalArgumentException e) {
             throw new JwtException("Invalid JWT");
         }
     }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
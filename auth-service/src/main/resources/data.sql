@@ -6,6 +6,17 @@ CREATE TABLE IF NOT EXISTS "users" (
     role VARCHAR(50) NOT NULL
 );
 
+-- Signing keys shared by every auth-service instance (see JwtKeyStore)
+CREATE TABLE IF NOT EXISTS jwt_signing_key (
+    id VARCHAR(255) PRIMARY KEY,
+    algorithm VARCHAR(255) NOT NULL,
+    key_algorithm VARCHAR(255) NOT NULL,
+    private_key VARCHAR(4096) NOT NULL,
+    public_key VARCHAR(1024) NOT NULL,
+    active_from TIMESTAMP WITH TIME ZONE NOT NULL,
+    retired_at TIMESTAMP WITH TIME ZONE
+);
+
 -- Insert the user if no existing user with the same id or email exists
 INSERT INTO "users" (id, email, password, role)
 SELECT '223e4567-e89b-12d3-a456-426614174006', 'testuser@test.com',
@@ -0,0 +1,97 @@
+package com.pcrypto.auth_service.util;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.KeyPair;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded sign and verify throughput for every supported {@code jwt.algorithm}, plus the size of the token
+ * each one produces. Not part of the regular build - run it explicitly with
+ * {@code mvn test -Dtest=JwtAlgorithmBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class JwtAlgorithmBenchmark {
+
+    private static final String SECRET = randomSecret();
+
+    @Param({"HS256", "RS256", "ES256", "EdDSA"})
+    private String algorithm;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = jwtUtil(algorithm);
+        token = jwtUtil.generateToken("testuser@test.com", "ADMIN");
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateToken("testuser@test.com", "ADMIN");
+    }
+
+    @Benchmark
+    public void verify() {
+        jwtUtil.validateToken(token);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        System.out.printf("%n%-8s %12s%n", "alg", "token bytes");
+        for (String alg : JwtKeyRing.SUPPORTED_ALGORITHMS) {
+            System.out.printf("%-8s %12d%n", alg, jwtUtil(alg).generateToken("testuser@test.com", "ADMIN").length());
+        }
+
+        new Runner(new OptionsBuilder()
+                .include(JwtAlgorithmBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    private static JwtUtil jwtUtil(String algorithm) {
+        return new JwtUtil(keyRing(algorithm), 36_000_000, false, 0, 0);
+    }
+
+    // One unstored key - the benchmark needs no jwt_signing_key table
+    static JwtKeyRing keyRing(String algorithm) {
+        JwtKeyRing keyRing = new JwtKeyRing(algorithm, SECRET);
+        if (!keyRing.isShared()) {
+            KeyPair keyPair = keyRing.newKeyPair();
+            keyRing.update(List.of(keyRing.signingKey(keyPair.getPrivate(), keyPair.getPublic(), Instant.now())),
+                    Instant.now());
+        }
+        return keyRing;
+    }
+
+    private static String randomSecret() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return Base64.getEncoder().encodeToString(secret);
+    }
+}
@@ -0,0 +1,70 @@
+package com.pcrypto.auth_service.util;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded validations per second - i.e. per core - for the {@code /validate} path: rebuilding the parser on
+ * every call (the old behaviour), the prebuilt parser, and the prebuilt parser behind the verified-token cache.
+ * Not part of the regular build - run it explicitly with {@code mvn test -Dtest=JwtValidationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class JwtValidationBenchmark {
+
+    private JwtKeyRing keyRing;
+    private JwtUtil jwtUtil;
+    private JwtUtil cachingJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        keyRing = JwtAlgorithmBenchmark.keyRing("RS256");
+        jwtUtil = new JwtUtil(keyRing, 36_000_000, false, 10_000, 30_000);
+        cachingJwtUtil = new JwtUtil(keyRing, 36_000_000, true, 10_000, 30_000);
+        token = jwtUtil.generateToken("testuser@test.com", "ADMIN");
+    }
+
+    @Benchmark
+    public Object parserPerCall() {
+        return Jwts.parser().keyLocator(keyRing).build().parseSignedClaims(token);
+    }
+
+    @Benchmark
+    public void prebuiltParser() {
+        jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public void prebuiltParserWithCache() {
+        cachingJwtUtil.validateToken(token);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
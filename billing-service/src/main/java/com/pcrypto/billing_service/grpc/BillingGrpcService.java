@@ -1,6 +1,10 @@
 package com.pcrypto.billing_service.grpc;
 
+import billing.BillingAccountRequest;
+import billing.BillingBatchRequest;
+import billing.BillingBatchResponse;
 import billing.BillingResponse;
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
@@ -15,15 +19,42 @@ public class BillingGrpcService extends BillingServiceImplBase {
 
         log.info("createBillingAccount request received : {}", billingRequest.toString());
 
+        responseObserver.onNext(createAccount(billingRequest));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void createBillingAccounts(BillingBatchRequest batchRequest, StreamObserver<BillingBatchResponse> responseObserver) {
+
+        log.info("createBillingAccounts request received : [Accounts={}]", batchRequest.getRequestsCount());
+
+        BillingBatchResponse.Builder response = BillingBatchResponse.newBuilder();
+        batchRequest.getRequestsList().forEach(request -> response.addResponses(createAccount(request)));
+
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getBillingAccount(BillingAccountRequest accountRequest, StreamObserver<BillingResponse> responseObserver) {
+
+        log.info("getBillingAccount request received : [PatientId={}]", accountRequest.getPatientId());
+
+        // Accounts are not persisted yet, so there is nothing to look up - callers must treat billing as unavailable
+        // rather than show a made-up account
+        responseObserver.onError(Status.UNIMPLEMENTED
+                .withDescription("Billing accounts are not stored yet")
+                .asRuntimeException());
+    }
+
+    private BillingResponse createAccount(billing.BillingRequest billingRequest) {
+
         //TODO
         // Add Business logic later- eg save to database, perform calculations
 
-        BillingResponse response = BillingResponse.newBuilder()
+        return BillingResponse.newBuilder()
                 .setAccountId("12345")
                 .setStatus("ACTIVE")
                 .build();
-
-        responseObserver.onNext(response);
-        responseObserver.onCompleted();
     }
 }
@@ -0,0 +1,11 @@
+package com.pcrypto.patientservice.configuration;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    public static final String PATIENTS_CACHE = "patients";
+}
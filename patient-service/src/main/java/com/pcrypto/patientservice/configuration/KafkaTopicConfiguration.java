@@ -0,0 +1,26 @@
+package com.pcrypto.patientservice.configuration;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfiguration {
+
+    public static final String PATIENT_TOPIC = "patient";
+
+    /**
+     * Provisions the patient topic on startup. Records are keyed by patient ID, so every event for one patient
+     * lands on the same partition and is consumed in order - consumers can scale out to one per partition.
+     */
+    @Bean
+    public NewTopic patientTopic(@Value("${patient.kafka.topic.partitions:6}") int partitions,
+                                 @Value("${patient.kafka.topic.replicas:1}") int replicas) {
+        return TopicBuilder.name(PATIENT_TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+}
@@ -1,14 +1,23 @@
 package com.pcrypto.patientservice.contoller;
 
 
+import com.pcrypto.patientservice.dto.PatientBatchResponseDTO;
+import com.pcrypto.patientservice.dto.PatientPageResponseDTO;
 import com.pcrypto.patientservice.dto.PatientRequestDTO;
 import com.pcrypto.patientservice.dto.PatientResponseDTO;
+import com.pcrypto.patientservice.dto.PatientSummaryResponseDTO;
 import com.pcrypto.patientservice.dto.validators.CreatePatientValidationGroup;
+import com.pcrypto.patientservice.mapper.PatientMapper;
+import com.pcrypto.patientservice.service.PatientExportService;
 import com.pcrypto.patientservice.service.PatientService;
+import com.pcrypto.patientservice.service.PatientSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.groups.Default;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,10 +27,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/patients")  // http://localhost:5000/patients
@@ -30,29 +43,66 @@ import java.util.UUID;
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientExportService patientExportService;
+    private final PatientSummaryService patientSummaryService;
+
+    @Value("${patient.http-cache.max-age-seconds:30}")
+    private long httpCacheMaxAgeSeconds;
 
     @GetMapping
-    @Operation(summary = "Get All Patients")
-    public ResponseEntity<List<PatientResponseDTO>> getAllPatients() {
-        List<PatientResponseDTO> patients = patientService.getPatients();
+    @Operation(summary = "Get All Patients, one keyset page at a time")
+    public ResponseEntity<PatientPageResponseDTO> getAllPatients(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer size) {
+        PatientPageResponseDTO patients = patientService.getPatients(cursor, size);
 
         return ResponseEntity.ok().body(patients);
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all Patients as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportPatients() {
+        StreamingResponseBody body = patientExportService::exportPatients;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get Patient by ID")
     public ResponseEntity<PatientResponseDTO> getPatient(@PathVariable UUID id) {
         PatientResponseDTO patient = patientService.getPatientById(id);
 
-        return ResponseEntity.ok().body(patient);
+        // private: patient data may only be cached per user (the gateway keys its cache by JWT subject).
+        // A matching If-None-Match gets 304 Not Modified without the body.
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(httpCacheMaxAgeSeconds)).cachePrivate())
+                .eTag(PatientMapper.toETag(patient))
+                .body(patient);
+    }
+
+    @GetMapping("/{id}/summary")
+    @Operation(summary = "Get a Patient with their billing account, partial if billing is slow")
+    public CompletableFuture<ResponseEntity<PatientSummaryResponseDTO>> getPatientSummary(@PathVariable UUID id) {
+        CompletableFuture<PatientSummaryResponseDTO> summary = patientSummaryService.getPatientSummary(id);
+
+        return summary.thenApply(patientSummary -> ResponseEntity.ok().body(patientSummary));
     }
 
     @PostMapping
     @Operation(summary = "Create a new Patient")
-    public ResponseEntity<PatientResponseDTO> createPatient(@Validated({Default.class, CreatePatientValidationGroup.class}) @RequestBody PatientRequestDTO patientRequestDTO) {
-        PatientResponseDTO patientResponseDTO = patientService.createPatient(patientRequestDTO);
+    public CompletableFuture<ResponseEntity<PatientResponseDTO>> createPatient(@Validated({Default.class, CreatePatientValidationGroup.class}) @RequestBody PatientRequestDTO patientRequestDTO) {
+        CompletableFuture<PatientResponseDTO> patientResponseDTO = patientService.createPatient(patientRequestDTO);
 
-        return ResponseEntity.ok().body(patientResponseDTO);
+        return patientResponseDTO.thenApply(patient -> ResponseEntity.ok().body(patient));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create Patients in bulk, reporting a result per item")
+    public ResponseEntity<PatientBatchResponseDTO> createPatients(@RequestBody List<PatientRequestDTO> patientRequestDTOs) {
+        PatientBatchResponseDTO patientBatchResponseDTO = patientService.createPatients(patientRequestDTOs);
+
+        return ResponseEntity.ok().body(patientBatchResponseDTO);
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,11 @@
+package com.pcrypto.patientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BillingAccountDTO {
+    private String accountId;
+    private String status;
+}
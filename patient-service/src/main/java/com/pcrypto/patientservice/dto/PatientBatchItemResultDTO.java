@@ -0,0 +1,21 @@
+package com.pcrypto.patientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PatientBatchItemResultDTO {
+    private int index;
+    private String status;
+    private PatientResponseDTO patient;
+    private String message;
+
+    public static PatientBatchItemResultDTO created(int index, PatientResponseDTO patient) {
+        return new PatientBatchItemResultDTO(index, "CREATED", patient, null);
+    }
+
+    public static PatientBatchItemResultDTO failed(int index, String message) {
+        return new PatientBatchItemResultDTO(index, "FAILED", null, message);
+    }
+}
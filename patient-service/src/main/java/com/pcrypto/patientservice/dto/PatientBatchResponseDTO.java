@@ -0,0 +1,14 @@
+package com.pcrypto.patientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PatientBatchResponseDTO {
+    private int created;
+    private int failed;
+    private List<PatientBatchItemResultDTO> results;
+}
@@ -0,0 +1,13 @@
+package com.pcrypto.patientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PatientPageResponseDTO {
+    private List<PatientResponseDTO> patients;
+    private String nextCursor;
+}
@@ -0,0 +1,18 @@
+package com.pcrypto.patientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PatientSummaryResponseDTO {
+    private PatientResponseDTO patient;
+    // null when billing-service did not answer in time - see unavailable
+    private BillingAccountDTO billing;
+    // true when at least one part is missing from the summary
+    private boolean partial;
+    // Parts left out, e.g. ["billing"]
+    private List<String> unavailable;
+}
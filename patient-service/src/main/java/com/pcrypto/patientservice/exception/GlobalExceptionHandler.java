@@ -40,4 +40,22 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.badRequest().body(errors);
     }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursorException(InvalidCursorException ex) {
+        log.warn("Invalid cursor {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("Message : ", "Invalid cursor!");
+
+        return ResponseEntity.badRequest().body(errors);
+    }
+
+    @ExceptionHandler(BatchSizeExceededException.class)
+    public ResponseEntity<Map<String, String>> handleBatchSizeExceededException(BatchSizeExceededException ex) {
+        log.warn("Batch size exceeded {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("Message : ", ex.getMessage());
+
+        return ResponseEntity.badRequest().body(errors);
+    }
 }
@@ -1,41 +1,151 @@
 package com.pcrypto.patientservice.grpc;
 
+import billing.BillingAccountRequest;
+import billing.BillingBatchRequest;
+import billing.BillingBatchResponse;
 import billing.BillingRequest;
 import billing.BillingResponse;
 import billing.BillingServiceGrpc;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @Service
 public class BillingServiceGrpcClient {
 
+    private final ManagedChannel channel;
+    private final ExecutorService channelExecutor;
     private final BillingServiceGrpc.BillingServiceBlockingStub blockingStub;
+    private final BillingServiceGrpc.BillingServiceFutureStub futureStub;
+    private final long deadlineMs;
+    private final long batchDeadlineMs;
 
     // grpc://localhost:9002/BillingService/CreateBillingAccount
     public BillingServiceGrpcClient(
             @Value("${billing.service.address:localhost}") String serverAddress,
-            @Value("${billing.service.grpc.port:9002}") int serverPort
+            @Value("${billing.service.grpc.port:9002}") int serverPort,
+            @Value("${billing.service.grpc.deadline-ms:2000}") long deadlineMs,
+            @Value("${billing.service.grpc.batch-deadline-ms:10000}") long batchDeadlineMs,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
     ) {
         log.info("Connecting to BillingService GRPC service at {}:{}", serverAddress, serverPort);
-        ManagedChannel channel = ManagedChannelBuilder.forAddress(serverAddress, serverPort)
-                .usePlaintext()
-                .build();
+        ManagedChannelBuilder<?> channelBuilder = ManagedChannelBuilder.forAddress(serverAddress, serverPort)
+                .usePlaintext();
+        // Response callbacks (including deferring failed accounts to the database) run on virtual threads too
+        channelExecutor = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        if (channelExecutor != null) {
+            channelBuilder.executor(channelExecutor);
+        }
+        channel = channelBuilder.build();
         blockingStub = BillingServiceGrpc.newBlockingStub(channel);
+        futureStub = BillingServiceGrpc.newFutureStub(channel);
+        this.deadlineMs = deadlineMs;
+        this.batchDeadlineMs = batchDeadlineMs;
     }
 
     public BillingResponse createBillingAccount(String patientId, String name, String email){
-        BillingRequest request = BillingRequest.newBuilder()
+        BillingRequest request = billingRequest(patientId, name, email);
+
+        BillingResponse response = blockingStub
+                .withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                .createBillingAccount(request);
+        log.info("Received response from Billing Service via GRPC: {}", response);
+        return response;
+    }
+
+    /**
+     * Non-blocking variant - no thread waits on billing-service while the call is in flight. The returned
+     * future fails with {@code DEADLINE_EXCEEDED} once {@code billing.service.grpc.deadline-ms} has passed.
+     */
+    public CompletableFuture<BillingResponse> createBillingAccountAsync(String patientId, String name, String email) {
+        BillingRequest request = billingRequest(patientId, name, email);
+
+        ListenableFuture<BillingResponse> call = futureStub
+                .withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                .createBillingAccount(request);
+
+        CompletableFuture<BillingResponse> response = new CompletableFuture<>();
+        Futures.addCallback(call, new FutureCallback<>() {
+            @Override
+            public void onSuccess(BillingResponse result) {
+                log.info("Received response from Billing Service via GRPC: {}", result);
+                response.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                response.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return response;
+    }
+
+    /**
+     * Reads a patient's billing account with its own, usually tighter, deadline than account creation.
+     */
+    public CompletableFuture<BillingResponse> getBillingAccountAsync(String patientId, long deadlineMs) {
+        BillingAccountRequest request = BillingAccountRequest.newBuilder()
                 .setPatientId(patientId)
-                .setName(name)
-                .setEmail(email)
                 .build();
 
-        BillingResponse response = blockingStub.createBillingAccount(request);
-        log.info("Received response from Billing Service via GRPC: {}", response);
+        ListenableFuture<BillingResponse> call = futureStub
+                .withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                .getBillingAccount(request);
+
+        CompletableFuture<BillingResponse> response = new CompletableFuture<>();
+        Futures.addCallback(call, new FutureCallback<>() {
+            @Override
+            public void onSuccess(BillingResponse result) {
+                response.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                response.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return response;
+    }
+
+    public BillingBatchResponse createBillingAccounts(List<BillingRequest> requests) {
+        BillingBatchRequest batchRequest = BillingBatchRequest.newBuilder()
+                .addAllRequests(requests)
+                .build();
+
+        BillingBatchResponse response = blockingStub
+                .withDeadlineAfter(batchDeadlineMs, TimeUnit.MILLISECONDS)
+                .createBillingAccounts(batchRequest);
+        log.info("Received batch response from Billing Service via GRPC: [Accounts={}]", response.getResponsesCount());
         return response;
     }
+
+    @PreDestroy
+    public void shutdown() {
+        channel.shutdown();
+        if (channelExecutor != null) {
+            channelExecutor.shutdown();
+        }
+    }
+
+    private BillingRequest billingRequest(String patientId, String name, String email) {
+        return BillingRequest.newBuilder()
+                .setPatientId(patientId)
+                .setName(name)
+                .setEmail(email)
+                .build();
+    }
 }
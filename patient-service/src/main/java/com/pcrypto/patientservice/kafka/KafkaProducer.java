@@ -1,51 +1,72 @@
 package com.pcrypto.patientservice.kafka;
 
 
-import com.pcrypto.patientservice.model.Patient;
+import com.pcrypto.patientservice.configuration.KafkaTopicConfiguration;
+import com.pcrypto.patientservice.model.OutboxEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
-import patient.events.PatientEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class KafkaProducer {
 
-    private static final String PATIENT_TOPIC = "patient";
-    private static final String PATIENT_CREATED_EVENT_TYPE = "PATIENT_CREATED";
     private final KafkaTemplate<String, byte[]> kafkaTemplate;
 
-    public void sendEvent(Patient patient) {
+    @Value("${patient.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
 
-        //TODO
-        // Add classes for other events for sendEvent
+    /**
+     * Sends a batch of outbox events and waits for the broker acknowledgements, at most
+     * {@code patient.outbox.send-timeout-ms} for the whole batch. Each record is keyed by patient ID, so events for
+     * the same patient keep their outbox order within one partition.
+     *
+     * @return the longest prefix of {@code events} the broker acknowledged; everything after the first failure is
+     * left for a retry, so no event is ever acknowledged ahead of an earlier one that still has to be re-sent
+     */
+    public List<OutboxEvent> sendEvents(List<OutboxEvent> events) {
 
-        PatientEvent event = patientCreatedEvent(patient);
-        byte[] eventBytes = event.toByteArray();
-        String key = patient.getId().toString(); // Use patient ID as key
+        //TODO
+        // Add classes for other events for sendEvents
 
-        log.info("🔄 Sending PatientCreated event: [PatientId={}, Key={}, Size={} bytes]",
-                event.getPatientId(), key, eventBytes.length);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
 
-        try {
-            kafkaTemplate.send(PATIENT_TOPIC, event.toByteArray());
-            log.info("✅ Message sent successfully: [PatientId={}]",
-                    event.getPatientId());
-        } catch (Exception e) {
-            log.error("Error sending PatientCreated event : {}", event);
+        // Hand every record to the producer before waiting, so they leave in full batches
+        List<CompletableFuture<SendResult<String, byte[]>>> futures = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            CompletableFuture<SendResult<String, byte[]>> future =
+                    kafkaTemplate.send(KafkaTopicConfiguration.PATIENT_TOPIC, event.getAggregateId(), event.getPayload());
+            futures.add(future);
+            // An unreachable broker fails each send only after max.block.ms - don't wait that long for every record
+            if (future.isCompletedExceptionally() || System.nanoTime() - deadline >= 0) {
+                break;
+            }
         }
-    }
 
-    private PatientEvent patientCreatedEvent(Patient patient) {
+        List<OutboxEvent> sent = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            OutboxEvent event = events.get(i);
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sent.add(event);
+            } catch (Exception e) {
+                log.error("Error sending {} event : [PatientId={}, OutboxId={}]",
+                        event.getEventType(), event.getAggregateId(), event.getId(), e);
+                break;
+            }
+        }
 
-        return PatientEvent.newBuilder()
-                .setPatientId(patient.getId().toString())
-                .setName(patient.getFirstName() + " " + patient.getLastName())
-                .setEmail(patient.getEmail())
-                .setEventType(PATIENT_CREATED_EVENT_TYPE)
-                .build();
+        log.info("✅ Messages sent successfully: [Sent={}, Pending={}]", sent.size(), events.size() - sent.size());
+        return sent;
     }
 
 }
@@ -0,0 +1,57 @@
+package com.pcrypto.patientservice.kafka;
+
+import com.pcrypto.patientservice.model.OutboxEvent;
+import com.pcrypto.patientservice.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Drains the patient_outbox table to Kafka in batches. Delivery is at-least-once: rows are only deleted
+ * after the broker acknowledged them, so a crash between send and commit re-sends the batch. Only the acknowledged
+ * prefix of a batch is deleted, so a failed event is re-sent before any later event of the same patient.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaProducer kafkaProducer;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${patient.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${patient.outbox.poll-interval-ms:500}")
+    public void relay() {
+        // Keep draining while batches come back full, so a backlog clears at full batch throughput
+        boolean drainedFullBatch;
+        do {
+            drainedFullBatch = Boolean.TRUE.equals(transactionTemplate.execute(status -> relayBatch()));
+        } while (drainedFullBatch);
+    }
+
+    private boolean relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return false;
+        }
+
+        List<OutboxEvent> sent = kafkaProducer.sendEvents(batch);
+        outboxEventRepository.deleteAllInBatch(sent);
+
+        if (sent.size() < batch.size()) {
+            log.warn("Outbox relay sent {} of {} events, retrying from outbox id {} on the next poll",
+                    sent.size(), batch.size(), batch.get(sent.size()).getId());
+            return false;
+        }
+        return batch.size() == batchSize;
+    }
+}
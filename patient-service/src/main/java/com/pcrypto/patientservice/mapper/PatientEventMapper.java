@@ -0,0 +1,31 @@
+package com.pcrypto.patientservice.mapper;
+
+import com.pcrypto.patientservice.model.OutboxEvent;
+import com.pcrypto.patientservice.model.Patient;
+import patient.events.PatientEvent;
+
+import java.time.Instant;
+
+public class PatientEventMapper {
+
+    public static final String PATIENT_CREATED_EVENT_TYPE = "PATIENT_CREATED";
+
+    public static PatientEvent toCreatedEvent(Patient patient) {
+        return PatientEvent.newBuilder()
+                .setPatientId(patient.getId().toString())
+                .setName(patient.getFirstName() + " " + patient.getLastName())
+                .setEmail(patient.getEmail())
+                .setEventType(PATIENT_CREATED_EVENT_TYPE)
+                .build();
+    }
+
+    public static OutboxEvent toOutboxEvent(Patient patient) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setAggregateId(patient.getId().toString());
+        outboxEvent.setEventType(PATIENT_CREATED_EVENT_TYPE);
+        outboxEvent.setPayload(toCreatedEvent(patient).toByteArray());
+        outboxEvent.setCreatedAt(Instant.now());
+
+        return outboxEvent;
+    }
+}
@@ -4,6 +4,9 @@ import com.pcrypto.patientservice.dto.PatientRequestDTO;
 import com.pcrypto.patientservice.dto.PatientResponseDTO;
 import com.pcrypto.patientservice.model.Patient;
 
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 
 public class PatientMapper {
@@ -20,6 +23,14 @@ public class PatientMapper {
         return patientResponseDTO;
     }
 
+    // Changes whenever any field the client sees changes
+    public static String toETag(PatientResponseDTO patientResponseDTO) {
+        String fields = String.join("\u001f", patientResponseDTO.getId(), patientResponseDTO.getFirstName(),
+                patientResponseDTO.getLastName(), patientResponseDTO.getEmail(), patientResponseDTO.getAddress(),
+                patientResponseDTO.getDateOfBirth());
+        return "\"" + DigestUtils.md5DigestAsHex(fields.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
     public static Patient toModel(PatientRequestDTO patientRequestDTO) {
         Patient patient = new Patient();
         patient.setFirstName(patientRequestDTO.getFirstName());
@@ -0,0 +1,41 @@
+package com.pcrypto.patientservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "billing_retry")
+@Data
+public class BillingRetry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(nullable = false)
+    private String patientId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String email;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Not picked up again before this; null means due now
+    private Instant nextAttemptAt;
+
+    // Set once max-attempts is reached - the row is kept for inspection but never retried
+    private Instant deadLetteredAt;
+}
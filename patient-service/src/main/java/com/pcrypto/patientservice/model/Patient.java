@@ -5,6 +5,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -13,6 +15,7 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "idx_patient_registered_date_id", columnList = "registered_date, id"))
 @Data
 public class Patient {
 
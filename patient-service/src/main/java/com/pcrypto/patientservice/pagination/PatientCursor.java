@@ -0,0 +1,40 @@
+package com.pcrypto.patientservice.pagination;
+
+import com.pcrypto.patientservice.exception.InvalidCursorException;
+import com.pcrypto.patientservice.model.Patient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor over (registeredDate, id), matching the order of the
+ * idx_patient_registered_date_id index. Clients only ever see the encoded form.
+ */
+public record PatientCursor(LocalDate registeredDate, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static PatientCursor of(Patient patient) {
+        return new PatientCursor(patient.getRegisteredDate(), patient.getId());
+    }
+
+    public String encode() {
+        String raw = registeredDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PatientCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            return new PatientCursor(
+                    LocalDate.parse(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid patient cursor - " + cursor);
+        }
+    }
+}
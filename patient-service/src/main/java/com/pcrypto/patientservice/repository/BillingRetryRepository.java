@@ -0,0 +1,26 @@
+package com.pcrypto.patientservice.repository;
+
+import com.pcrypto.patientservice.model.BillingRetry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface BillingRetryRepository extends JpaRepository<BillingRetry, Long> {
+
+    // FOR UPDATE SKIP LOCKED - concurrent relays (one per instance) claim disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM BillingRetry r WHERE r.deadLetteredAt IS NULL"
+            + " AND (r.nextAttemptAt IS NULL OR r.nextAttemptAt <= :now) ORDER BY r.id")
+    List<BillingRetry> findDue(@Param("now") Instant now, Limit limit);
+}
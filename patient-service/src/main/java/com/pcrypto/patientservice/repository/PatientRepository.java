@@ -1,10 +1,21 @@
 package com.pcrypto.patientservice.repository;
 
 import com.pcrypto.patientservice.model.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, UUID> {
@@ -13,4 +24,28 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
     boolean existsByEmail(String email);
 
     boolean existsByEmailAndIdNot(String email, UUID id);
+
+    @Query("SELECT p.email FROM Patient p WHERE p.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Keyset pagination - both queries walk idx_patient_registered_date_id
+    List<Patient> findAllByOrderByRegisteredDateAscIdAsc(Limit limit);
+
+    @Query("""
+            SELECT p FROM Patient p
+            WHERE (p.registeredDate, p.id) > (:registeredDate, :id)
+            ORDER BY p.registeredDate ASC, p.id ASC
+            """)
+    List<Patient> findPageAfter(@Param("registeredDate") LocalDate registeredDate,
+                                @Param("id") UUID id,
+                                Limit limit);
+
+    // Server-side cursor for full exports - must be consumed inside a read-only transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Patient p")
+    Stream<Patient> streamAll();
 }
@@ -0,0 +1,155 @@
+package com.pcrypto.patientservice.service;
+
+import billing.BillingRequest;
+import billing.BillingResponse;
+import com.pcrypto.patientservice.grpc.BillingServiceGrpcClient;
+import com.pcrypto.patientservice.model.BillingRetry;
+import com.pcrypto.patientservice.model.Patient;
+import com.pcrypto.patientservice.repository.BillingRetryRepository;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Guards billing-service calls with a circuit breaker and a bulkhead. Patient registration never fails because of
+ * billing: rejected or failed account creations are parked in the billing_retry table and replayed by
+ * {@link BillingRetryRelay} once billing-service recovers.
+ */
+@Slf4j
+@Service
+public class BillingAccountService {
+
+    public static final String BILLING = "billing";
+    public static final String BILLING_READ = "billing-read";
+
+    private final BillingServiceGrpcClient billingServiceGrpcClient;
+    private final BillingRetryRepository billingRetryRepository;
+    private final CircuitBreaker circuitBreaker;
+    private final CircuitBreaker readCircuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public BillingAccountService(BillingServiceGrpcClient billingServiceGrpcClient,
+                                 BillingRetryRepository billingRetryRepository,
+                                 CircuitBreakerRegistry circuitBreakerRegistry,
+                                 BulkheadRegistry bulkheadRegistry) {
+        this.billingServiceGrpcClient = billingServiceGrpcClient;
+        this.billingRetryRepository = billingRetryRepository;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(BILLING);
+        this.readCircuitBreaker = circuitBreakerRegistry.circuitBreaker(BILLING_READ);
+        this.bulkhead = bulkheadRegistry.bulkhead(BILLING);
+    }
+
+    public CompletableFuture<Void> createBillingAccount(Patient patient) {
+        Supplier<CompletionStage<BillingResponse>> call = () -> billingServiceGrpcClient.createBillingAccountAsync(
+                patient.getId().toString(), fullName(patient), patient.getEmail());
+
+        // Bulkhead outermost, so calls it rejects never count as breaker failures
+        return Bulkhead.decorateCompletionStage(bulkhead, CircuitBreaker.decorateCompletionStage(circuitBreaker, call))
+                .get()
+                .<Void>handle((response, error) -> {
+                    if (error != null) {
+                        defer(List.of(patient), error);
+                    }
+                    return null;
+                })
+                .toCompletableFuture();
+    }
+
+    /**
+     * Reads a patient's billing account through its own circuit breaker, so lookups fail fast while billing-service
+     * is known to be down. Reads run on a much shorter deadline than account creation; on the shared breaker their
+     * timeouts would open it and defer every new account. Not bulkheaded: reads must not take permits from account
+     * creation.
+     */
+    public CompletableFuture<BillingResponse> getBillingAccount(String patientId, long deadlineMs) {
+        Supplier<CompletionStage<BillingResponse>> call = () -> billingServiceGrpcClient.getBillingAccountAsync(patientId, deadlineMs);
+
+        return CircuitBreaker.decorateCompletionStage(readCircuitBreaker, call).get().toCompletableFuture();
+    }
+
+    public void createBillingAccounts(List<Patient> patients) {
+        List<BillingRequest> billingRequests = patients.stream()
+                .map(patient -> billingRequest(patient.getId().toString(), fullName(patient), patient.getEmail()))
+                .toList();
+
+        try {
+            Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker,
+                    () -> billingServiceGrpcClient.createBillingAccounts(billingRequests))).get();
+        } catch (RuntimeException e) {
+            defer(patients, e);
+        }
+    }
+
+    /**
+     * Replays one parked account creation through the circuit breaker.
+     *
+     * @return true if billing-service created the account
+     * @throws CallNotPermittedException if the breaker rejected the call - billing-service was never asked
+     */
+    public boolean retryBillingAccount(BillingRetry retry) {
+        try {
+            circuitBreaker.executeSupplier(() -> billingServiceGrpcClient.createBillingAccount(
+                    retry.getPatientId(), retry.getName(), retry.getEmail()));
+            return true;
+        } catch (CallNotPermittedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("Billing retry of patient {} failed [Attempts={}]: {}",
+                    retry.getPatientId(), retry.getAttempts() + 1, e.getMessage());
+            return false;
+        }
+    }
+
+    public boolean isAcceptingCalls() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state != CircuitBreaker.State.OPEN && state != CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    private void defer(List<Patient> patients, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        log.warn("Deferring billing account creation for {} patients [Breaker={}]: {}",
+                patients.size(), circuitBreaker.getState(), cause.toString());
+
+        Instant now = Instant.now();
+        try {
+            billingRetryRepository.saveAll(patients.stream()
+                    .map(patient -> {
+                        BillingRetry retry = new BillingRetry();
+                        retry.setPatientId(patient.getId().toString());
+                        retry.setName(fullName(patient));
+                        retry.setEmail(patient.getEmail());
+                        retry.setCreatedAt(now);
+                        retry.setNextAttemptAt(now);
+                        return retry;
+                    })
+                    .toList());
+        } catch (RuntimeException e) {
+            // The patients are already committed - losing the retry must not fail their registration
+            log.error("Could not queue billing accounts for retry, patients {} have none: {}",
+                    patients.stream().map(Patient::getId).toList(), e.toString());
+        }
+    }
+
+    private static String fullName(Patient patient) {
+        return patient.getFirstName() + " " + patient.getLastName();
+    }
+
+    private static BillingRequest billingRequest(String patientId, String name, String email) {
+        return BillingRequest.newBuilder()
+                .setPatientId(patientId)
+                .setName(name)
+                .setEmail(email)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.pcrypto.patientservice.service;
+
+import com.pcrypto.patientservice.model.BillingRetry;
+import com.pcrypto.patientservice.repository.BillingRetryRepository;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Drains the billing_retry queue at a controlled rate - at most {@code billing.retry.batch-size} accounts per
+ * {@code billing.retry.poll-interval-ms} - and only while the billing circuit breaker lets calls through, so a
+ * recovering billing-service is not flooded with the backlog.
+ * <p>
+ * Rows are claimed in a short transaction and retried one by one outside it. A failed row backs off exponentially
+ * and is dead-lettered after {@code billing.retry.max-attempts}, so one account billing-service keeps rejecting
+ * never holds up the rest of the queue.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BillingRetryRelay {
+
+    private final BillingRetryRepository billingRetryRepository;
+    private final BillingAccountService billingAccountService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${billing.retry.batch-size:100}")
+    private int batchSize;
+
+    @Value("${billing.retry.max-attempts:20}")
+    private int maxAttempts;
+
+    @Value("${billing.retry.backoff-ms:1000}")
+    private long backoffMs;
+
+    @Value("${billing.retry.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    // Claimed rows are hidden from other instances this long; must outlast batch-size sequential calls
+    @Value("${billing.retry.claim-ms:300000}")
+    private long claimMs;
+
+    @Scheduled(fixedDelayString = "${billing.retry.poll-interval-ms:1000}")
+    public void relay() {
+        if (!billingAccountService.isAcceptingCalls()) {
+            return;
+        }
+
+        List<BillingRetry> batch = transactionTemplate.execute(status -> claim());
+        int created = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            BillingRetry retry = batch.get(i);
+            if (!billingAccountService.isAcceptingCalls()) {
+                release(batch.subList(i, batch.size()));
+                break;
+            }
+
+            boolean accepted;
+            try {
+                accepted = billingAccountService.retryBillingAccount(retry);
+            } catch (CallNotPermittedException e) {
+                // HALF_OPEN permits used up or the breaker opened - not an attempt, so no backoff for this row
+                release(batch.subList(i, batch.size()));
+                break;
+            }
+
+            if (accepted) {
+                billingRetryRepository.deleteById(retry.getId());
+                created++;
+            } else {
+                recordFailure(retry);
+            }
+        }
+
+        if (created > 0) {
+            log.info("Created {} of {} deferred billing accounts", created, batch.size());
+        }
+    }
+
+    private List<BillingRetry> claim() {
+        Instant now = Instant.now();
+        List<BillingRetry> batch = billingRetryRepository.findDue(now, Limit.of(batchSize));
+        // Committed with the claim, so other instances skip these rows while this one works through them
+        batch.forEach(retry -> retry.setNextAttemptAt(now.plusMillis(claimMs)));
+        return batch;
+    }
+
+    private void release(List<BillingRetry> unprocessed) {
+        Instant now = Instant.now();
+        unprocessed.forEach(retry -> retry.setNextAttemptAt(now));
+        billingRetryRepository.saveAll(unprocessed);
+    }
+
+    private void recordFailure(BillingRetry retry) {
+        Instant now = Instant.now();
+        retry.setAttempts(retry.getAttempts() + 1);
+        if (retry.getAttempts() >= maxAttempts) {
+            retry.setDeadLetteredAt(now);
+            log.error("Giving up on the billing account of patient {} after {} attempts",
+                    retry.getPatientId(), retry.getAttempts());
+        } else {
+            long backoff = backoffMs << Math.min(retry.getAttempts() - 1, 30);
+            retry.setNextAttemptAt(now.plusMillis(Math.min(backoff, maxBackoffMs)));
+        }
+        billingRetryRepository.save(retry);
+    }
+}
@@ -0,0 +1,70 @@
+package com.pcrypto.patientservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pcrypto.patientservice.mapper.PatientMapper;
+import com.pcrypto.patientservice.model.Patient;
+import com.pcrypto.patientservice.repository.PatientRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PatientExportService {
+
+    private static final byte NEWLINE = '\n';
+
+    private final PatientRepository patientRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${patient.export.flush-every:500}")
+    private int flushEvery;
+
+    @PostConstruct
+    void validateFlushEvery() {
+        if (flushEvery < 1) {
+            throw new IllegalStateException("patient.export.flush-every must be at least 1, got " + flushEvery);
+        }
+    }
+
+    /**
+     * Writes every patient as newline-delimited JSON. Rows are pulled through a database cursor and
+     * detached once written, so heap use stays flat regardless of table size.
+     */
+    @Transactional(readOnly = true)
+    public long exportPatients(OutputStream outputStream) {
+        long count = 0;
+        try (Stream<Patient> patients = patientRepository.streamAll()) {
+            Iterator<Patient> iterator = patients.iterator();
+            while (iterator.hasNext()) {
+                Patient patient = iterator.next();
+                outputStream.write(objectMapper.writeValueAsBytes(PatientMapper.toDTO(patient)));
+                outputStream.write(NEWLINE);
+                entityManager.detach(patient);
+
+                // Flush the first row straight away so clients see bytes immediately
+                if (++count == 1 || count % flushEvery == 0) {
+                    outputStream.flush();
+                }
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Patient export aborted after " + count + " rows", e);
+        }
+
+        log.info("Exported {} patients", count);
+        return count;
+    }
+}
@@ -1,37 +1,92 @@
 package com.pcrypto.patientservice.service;
 
+import com.pcrypto.patientservice.configuration.CacheConfiguration;
+import com.pcrypto.patientservice.dto.PatientBatchItemResultDTO;
+import com.pcrypto.patientservice.dto.PatientBatchResponseDTO;
+import com.pcrypto.patientservice.dto.PatientPageResponseDTO;
 import com.pcrypto.patientservice.dto.PatientRequestDTO;
 import com.pcrypto.patientservice.dto.PatientResponseDTO;
+import com.pcrypto.patientservice.dto.validators.CreatePatientValidationGroup;
+import com.pcrypto.patientservice.exception.BatchSizeExceededException;
 import com.pcrypto.patientservice.exception.EmailAlreadyExistsException;
 import com.pcrypto.patientservice.exception.PatientNotFoundException;
-import com.pcrypto.patientservice.grpc.BillingServiceGrpcClient;
-import com.pcrypto.patientservice.kafka.KafkaProducer;
+import com.pcrypto.patientservice.mapper.PatientEventMapper;
 import com.pcrypto.patientservice.mapper.PatientMapper;
 import com.pcrypto.patientservice.model.Patient;
+import com.pcrypto.patientservice.pagination.PatientCursor;
+import com.pcrypto.patientservice.repository.OutboxEventRepository;
 import com.pcrypto.patientservice.repository.PatientRepository;
-import lombok.AllArgsConstructor;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class PatientService {
 
     private final PatientRepository patientRepository;
-    private final BillingServiceGrpcClient billingServiceGrpcClient;
-    private final KafkaProducer kafkaProducer;
+    private final BillingAccountService billingAccountService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+
+    @Value("${patient.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${patient.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${patient.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    public PatientPageResponseDTO getPatients(String cursor, Integer size) {
+        int pageSize = Math.min(size == null || size < 1 ? defaultPageSize : size, maxPageSize);
+
+        // Fetch one extra row to know whether another page exists without a count query
+        Limit limit = Limit.of(pageSize + 1);
+        List<Patient> patients;
+        if (cursor == null || cursor.isBlank()) {
+            patients = patientRepository.findAllByOrderByRegisteredDateAscIdAsc(limit);
+        } else {
+            PatientCursor after = PatientCursor.decode(cursor);
+            patients = patientRepository.findPageAfter(after.registeredDate(), after.id(), limit);
+        }
 
-    public List<PatientResponseDTO> getPatients() {
-        List<Patient> patients = patientRepository.findAll();
+        String nextCursor = null;
+        if (patients.size() > pageSize) {
+            patients = patients.subList(0, pageSize);
+            nextCursor = PatientCursor.of(patients.get(pageSize - 1)).encode();
+        }
 
-        return patients.stream()
+        return new PatientPageResponseDTO(patients.stream()
                 .map(PatientMapper::toDTO)
-                .toList();
+                .toList(), nextCursor);
     }
 
+    @Cacheable(cacheNames = CacheConfiguration.PATIENTS_CACHE, key = "#id")
     public PatientResponseDTO getPatientById(UUID id) {
         Patient patient = patientRepository.findById(id)
                 .orElseThrow(() -> new PatientNotFoundException("No patient found with ID: " + id));
@@ -39,20 +94,126 @@ public class PatientService {
         return PatientMapper.toDTO(patient);
     }
 
-    public PatientResponseDTO createPatient(PatientRequestDTO patientRequestDTO) {
+    public CompletableFuture<PatientResponseDTO> createPatient(PatientRequestDTO patientRequestDTO) {
 
         if (patientRepository.existsByEmail(patientRequestDTO.getEmail())) {
             throw new EmailAlreadyExistsException("A patient with this email already exists - " +
                     patientRequestDTO.getEmail());
         }
-        Patient newPatient = patientRepository.save(PatientMapper.toModel(patientRequestDTO));
-        billingServiceGrpcClient.createBillingAccount(newPatient.getId().toString(), newPatient.getFirstName() + " " + newPatient.getLastName(), newPatient.getEmail());
-        kafkaProducer.sendEvent(newPatient);
+        // The PatientEvent is committed with the patient and published by OutboxRelay
+        Patient newPatient = transactionTemplate.execute(status -> {
+            Patient patient = patientRepository.save(PatientMapper.toModel(patientRequestDTO));
+            outboxEventRepository.save(PatientEventMapper.toOutboxEvent(patient));
+            return patient;
+        });
+
+        // Deadline-bounded and non-blocking: the request thread is released while billing-service responds.
+        // Billing failures never fail registration - the account is queued for retry instead.
+        return billingAccountService.createBillingAccount(newPatient)
+                .thenApply(billing -> PatientMapper.toDTO(newPatient));
+    }
 
+    public PatientBatchResponseDTO createPatients(List<PatientRequestDTO> patientRequestDTOs) {
+
+        if (patientRequestDTOs.size() > maxBatchSize) {
+            throw new BatchSizeExceededException("Batch of " + patientRequestDTOs.size() +
+                    " patients exceeds the limit of " + maxBatchSize);
+        }
+
+        PatientBatchItemResultDTO[] results = new PatientBatchItemResultDTO[patientRequestDTOs.size()];
+        Patient[] candidates = new Patient[patientRequestDTOs.size()];
+        Map<String, Integer> candidateIndexByEmail = new LinkedHashMap<>();
+
+        for (int i = 0; i < patientRequestDTOs.size(); i++) {
+            PatientRequestDTO patientRequestDTO = patientRequestDTOs.get(i);
+            if (patientRequestDTO == null) {
+                results[i] = PatientBatchItemResultDTO.failed(i, "Patient must not be null");
+                continue;
+            }
+
+            Set<ConstraintViolation<PatientRequestDTO>> violations =
+                    validator.validate(patientRequestDTO, Default.class, CreatePatientValidationGroup.class);
+            if (!violations.isEmpty()) {
+                results[i] = PatientBatchItemResultDTO.failed(i, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+
+            if (candidateIndexByEmail.putIfAbsent(patientRequestDTO.getEmail(), i) != null) {
+                results[i] = PatientBatchItemResultDTO.failed(i, "Duplicate email in batch - " +
+                        patientRequestDTO.getEmail());
+                continue;
+            }
+
+            try {
+                candidates[i] = PatientMapper.toModel(patientRequestDTO);
+            } catch (DateTimeParseException e) {
+                candidateIndexByEmail.remove(patientRequestDTO.getEmail());
+                results[i] = PatientBatchItemResultDTO.failed(i, "Invalid date - " + e.getParsedString());
+            }
+        }
+
+        // One set-based lookup instead of an existsByEmail round trip per patient
+        rejectExistingEmails(candidateIndexByEmail, results);
+
+        List<Integer> newPatientIndexes = new ArrayList<>();
+        List<Patient> savedPatients;
+        while (true) {
+            newPatientIndexes.clear();
+            newPatientIndexes.addAll(candidateIndexByEmail.values());
+            List<Patient> newPatients = newPatientIndexes.stream()
+                    .map(i -> candidates[i])
+                    .toList();
+
+            try {
+                // Patients and their outbox events commit together, flushed as JDBC batches of hibernate.jdbc.batch_size
+                savedPatients = transactionTemplate.execute(status -> {
+                    List<Patient> patients = patientRepository.saveAll(newPatients);
+                    outboxEventRepository.saveAll(patients.stream()
+                            .map(PatientEventMapper::toOutboxEvent)
+                            .toList());
+                    return patients;
+                });
+                break;
+            } catch (DataIntegrityViolationException e) {
+                // An email was inserted concurrently since the lookup; report it per item and save the rest
+                int pending = candidateIndexByEmail.size();
+                rejectExistingEmails(candidateIndexByEmail, results);
+                if (candidateIndexByEmail.size() == pending) {
+                    throw e;
+                }
+                log.warn("Batch raced with a concurrent insert, retrying {} patients", candidateIndexByEmail.size());
+                // The rolled-back insert left generated ids on the entities
+                newPatients.forEach(patient -> patient.setId(null));
+            }
+        }
 
-        return PatientMapper.toDTO(newPatient);
+        for (int k = 0; k < savedPatients.size(); k++) {
+            int i = newPatientIndexes.get(k);
+            results[i] = PatientBatchItemResultDTO.created(i, PatientMapper.toDTO(savedPatients.get(k)));
+        }
+
+        if (!savedPatients.isEmpty()) {
+            billingAccountService.createBillingAccounts(savedPatients);
+        }
+
+        int created = savedPatients.size();
+        return new PatientBatchResponseDTO(created, results.length - created, Arrays.asList(results));
+    }
+
+    private void rejectExistingEmails(Map<String, Integer> candidateIndexByEmail, PatientBatchItemResultDTO[] results) {
+        if (candidateIndexByEmail.isEmpty()) {
+            return;
+        }
+        for (String email : patientRepository.findExistingEmails(candidateIndexByEmail.keySet())) {
+            int i = candidateIndexByEmail.remove(email);
+            results[i] = PatientBatchItemResultDTO.failed(i, "A patient with this email already exists - " + email);
+        }
     }
 
+    @CachePut(cacheNames = CacheConfiguration.PATIENTS_CACHE, key = "#id")
     public PatientResponseDTO updatePatient(UUID id, PatientRequestDTO patientRequestDTO) {
         Patient patient = patientRepository.findById(id)
                 .orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + id));
@@ -72,6 +233,7 @@ public class PatientService {
         return PatientMapper.toDTO(updatedPatient);
     }
 
+    @CacheEvict(cacheNames = CacheConfiguration.PATIENTS_CACHE, key = "#id")
     public void deletePatient(UUID id) {
         patientRepository.deleteById(id);
     }
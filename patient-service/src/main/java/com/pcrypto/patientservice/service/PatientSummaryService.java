@@ -0,0 +1,49 @@
+package com.pcrypto.patientservice.service;
+
+import billing.BillingResponse;
+import com.pcrypto.patientservice.dto.BillingAccountDTO;
+import com.pcrypto.patientservice.dto.PatientResponseDTO;
+import com.pcrypto.patientservice.dto.PatientSummaryResponseDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Patient plus billing account in one call. The billing lookup is started first and runs while the patient is read,
+ * so the summary takes as long as the slower of the two, not their sum. Billing is optional: if it fails or misses
+ * {@code patient.summary.billing-deadline-ms}, the summary is returned without it and marked partial.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PatientSummaryService {
+
+    public static final String BILLING_PART = "billing";
+
+    private final PatientService patientService;
+    private final BillingAccountService billingAccountService;
+
+    @Value("${patient.summary.billing-deadline-ms:300}")
+    private long billingDeadlineMs;
+
+    public CompletableFuture<PatientSummaryResponseDTO> getPatientSummary(UUID id) {
+        CompletableFuture<BillingResponse> billing = billingAccountService.getBillingAccount(id.toString(), billingDeadlineMs);
+
+        // Served from the patients cache when warm; throws PatientNotFoundException like GET /patients/{id}
+        PatientResponseDTO patient = patientService.getPatientById(id);
+
+        return billing.handle((account, error) -> {
+            if (error != null) {
+                log.warn("Patient summary without billing [PatientId={}]: {}", id, error.toString());
+                return new PatientSummaryResponseDTO(patient, null, true, List.of(BILLING_PART));
+            }
+            return new PatientSummaryResponseDTO(patient,
+                    new BillingAccountDTO(account.getAccountId(), account.getStatus()), false, List.of());
+        });
+    }
+}
@@ -10,6 +10,9 @@ CREATE TABLE IF NOT EXISTS patient
     registered_date DATE                NOT NULL
 );
 
+-- Backs keyset pagination over (registered_date, id)
+CREATE INDEX IF NOT EXISTS idx_patient_registered_date_id ON patient (registered_date, id);
+
 -- Insert well-known UUIDs for specific patients
 INSERT INTO patient (id, first_name, last_name, email, address, date_of_birth, registered_date)
 SELECT '123e4567-e89b-12d3-a456-426614174000',
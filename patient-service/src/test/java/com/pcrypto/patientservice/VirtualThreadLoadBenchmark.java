@@ -0,0 +1,128 @@
+package com.pcrypto.patientservice;
+
+import com.pcrypto.patientservice.model.Patient;
+import com.pcrypto.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Load test for the request thread model: {@code CONNECTIONS} concurrent clients page through
+ * {@code GET /patients}, which goes through Tomcat, Hibernate and the connection pool on every request.
+ * Not part of the regular build - run it once per mode and compare the two lines it prints:
+ * <pre>
+ * mvn test -Dtest=VirtualThreadLoadBenchmark -Dspring.threads.virtual.enabled=false
+ * mvn test -Dtest=VirtualThreadLoadBenchmark -Dspring.threads.virtual.enabled=true -DargLine=-Djdk.tracePinnedThreads=short
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.defer-datasource-initialization=true")
+class VirtualThreadLoadBenchmark {
+
+    private static final int CONNECTIONS = Integer.getInteger("benchmark.connections", 1_000);
+    private static final int REQUESTS_PER_CONNECTION = Integer.getInteger("benchmark.requests", 20);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @BeforeEach
+    void seedPatients() {
+        if (patientRepository.count() >= 1_000) {
+            return;
+        }
+        patientRepository.saveAll(IntStream.range(0, 1_000)
+                .mapToObj(i -> {
+                    Patient patient = new Patient();
+                    patient.setFirstName("Load");
+                    patient.setLastName("Patient" + i);
+                    patient.setEmail("load.patient" + i + "@example.com");
+                    patient.setAddress(i + " Benchmark Street");
+                    patient.setDateOfBirth(LocalDate.of(1980, 1, 1).plusDays(i));
+                    patient.setRegisteredDate(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+                    return patient;
+                })
+                .toList());
+    }
+
+    @Test
+    void pagePatientsUnderLoad() throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/patients?size=20");
+
+        // Warm up the JIT, Hibernate and the connection pool before measuring anything
+        run(uri, 50, 20);
+
+        Result result = run(uri, CONNECTIONS, REQUESTS_PER_CONNECTION);
+        System.out.printf("%n%-9s connections=%,d requests=%,d errors=%,d throughput=%,.0f req/s p50=%.1f ms p99=%.1f ms%n",
+                virtualThreads ? "virtual" : "platform", CONNECTIONS, result.latenciesNanos().length,
+                result.errors(), result.throughput(), result.percentileMillis(50), result.percentileMillis(99));
+    }
+
+    private Result run(URI uri, int connections, int requestsPerConnection) throws Exception {
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<long[]>> clients = new ArrayList<>(connections);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < connections; c++) {
+                clients.add(executor.submit(() -> {
+                    // One client per connection, so the server really sees `connections` open sockets
+                    try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+                        long[] latencies = new long[requestsPerConnection];
+                        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+                        for (int r = 0; r < requestsPerConnection; r++) {
+                            long sent = System.nanoTime();
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            latencies[r] = System.nanoTime() - sent;
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                        return latencies;
+                    }
+                }));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long[] latencies = new long[connections * requestsPerConnection];
+        int i = 0;
+        for (Future<long[]> client : clients) {
+            for (long latency : client.get()) {
+                latencies[i++] = latency;
+            }
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors.get(), latencies.length / seconds);
+    }
+
+    private record Result(long[] latenciesNanos, int errors, double throughput) {
+
+        double percentileMillis(int percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.pcrypto.patientservice.kafka;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import patient.events.PatientEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Compares producer settings for patient events against an embedded broker: events per second and the bytes
+ * the broker ends up storing. Not part of the regular build - run it explicitly with
+ * {@code mvn test -Dtest=PatientEventProducerBenchmark [-Dbenchmark.events=200000]}.
+ */
+class PatientEventProducerBenchmark {
+
+    private static final int EVENTS = Integer.getInteger("benchmark.events", 200_000);
+    private static final int PARTITIONS = 6;
+
+    private static EmbeddedKafkaKraftBroker broker;
+    private static Admin admin;
+
+    private record Setting(String name, boolean idempotence, int lingerMs, int batchSize, String compression) {
+    }
+
+    private record Sample(String key, byte[] payload) {
+    }
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS);
+        broker.afterPropertiesSet();
+        admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()));
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        admin.close();
+        broker.destroy();
+    }
+
+    @Test
+    void compareProducerSettings() throws Exception {
+        List<Setting> settings = List.of(
+                new Setting("non-idempotent", false, 0, 16_384, "none"),
+                // Kafka's producer defaults since 3.0: idempotence on, no linger, 16 KB batches, no compression
+                new Setting("kafka-default", true, 0, 16_384, "none"),
+                new Setting("idempotent-batched", true, 20, 131_072, "none"),
+                new Setting("idempotent-batched-lz4", true, 20, 131_072, "lz4"),
+                new Setting("idempotent-batched-zstd", true, 20, 131_072, "zstd"));
+
+        List<Sample> samples = samples();
+
+        // Warm up the JIT and the broker before measuring anything
+        run(new Setting("warmup", true, 20, 131_072, "lz4"), samples);
+
+        System.out.printf("%n%-26s %12s %14s %12s%n", "setting", "events/s", "broker bytes", "bytes/event");
+        for (Setting setting : settings) {
+            run(setting, samples);
+        }
+    }
+
+    private void run(Setting setting, List<Sample> samples) throws Exception {
+        String topic = "patient-benchmark-" + setting.name();
+        admin.createTopics(List.of(new NewTopic(topic, PARTITIONS, (short) 1))).all().get();
+
+        Map<String, Object> config = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, setting.idempotence(),
+                ProducerConfig.LINGER_MS_CONFIG, setting.lingerMs(),
+                ProducerConfig.BATCH_SIZE_CONFIG, setting.batchSize(),
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, setting.compression());
+
+        long start = System.nanoTime();
+        try (KafkaProducer<String, byte[]> producer =
+                     new KafkaProducer<>(config, new StringSerializer(), new ByteArraySerializer())) {
+            for (int i = 0; i < EVENTS; i++) {
+                Sample sample = samples.get(i % samples.size());
+                producer.send(new ProducerRecord<>(topic, sample.key(), sample.payload()));
+            }
+            producer.flush();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long brokerBytes = brokerBytes(topic);
+        if (!setting.name().equals("warmup")) {
+            System.out.printf("%-26s %,12.0f %,14d %12.1f%n",
+                    setting.name(), EVENTS / seconds, brokerBytes, (double) brokerBytes / EVENTS);
+        }
+    }
+
+    private long brokerBytes(String topic) throws Exception {
+        return admin.describeLogDirs(List.of(0)).allDescriptions().get().values().stream()
+                .flatMap(logDirs -> logDirs.values().stream())
+                .flatMap(logDir -> logDir.replicaInfos().entrySet().stream())
+                .filter(replica -> replica.getKey().topic().equals(topic))
+                .mapToLong(replica -> replica.getValue().size())
+                .sum();
+    }
+
+    private static List<Sample> samples() {
+        return IntStream.range(0, 10_000)
+                .mapToObj(i -> {
+                    String patientId = UUID.randomUUID().toString();
+                    byte[] payload = PatientEvent.newBuilder()
+                            .setPatientId(patientId)
+                            .setName("Patient " + i + " Lastname" + (i % 97))
+                            .setEmail("patient" + i + "@clinic" + (i % 13) + ".example.com")
+                            .setEventType("PATIENT_CREATED")
+                            .build()
+                            .toByteArray();
+                    return new Sample(patientId, payload);
+                })
+                .toList();
+    }
+}